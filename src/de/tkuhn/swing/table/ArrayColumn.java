@@ -0,0 +1,151 @@
+/*
+ * ArrayColumn.java
+ *
+ * Created on 17. Oktober 2026, 21:05
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.lang.reflect.Array;
+
+/**
+ * A <code>DataColumn</code> keeping the values of its rows in a single
+ * array of a primitive type that grows as rows are added. Subclasses
+ * provide the typed access to the array, this class moves the values when
+ * rows are inserted or removed.
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+abstract class ArrayColumn extends DataColumn {
+
+	/** The number of rows */
+	int rowCount = 0;
+
+	/**
+	 * Get the array holding the values.
+	 *
+	 * @return the array of values
+	 */
+	abstract Object getArray();
+
+	/**
+	 * Replace the array holding the values.
+	 *
+	 * @param array
+	 *            the new array of values
+	 */
+	abstract void setArray(Object array);
+
+	/**
+	 * Implements <code>getRowCount()</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Implements <code>removeValues(first, last)</code> of
+	 * <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public void removeValues(int first, int last) {
+		checkRows(first, last, rowCount);
+		Object array = getArray();
+		System.arraycopy(array, last + 1, array, first, rowCount - last - 1);
+		rowCount -= last - first + 1;
+	}
+
+	/**
+	 * Add rows at the end of the array. Their values have to be set by the
+	 * caller.
+	 *
+	 * @param count
+	 *            the number of rows to add
+	 * @return the first added row
+	 */
+	int appendRows(int count) {
+		ensureCapacity(rowCount + count);
+		int first = rowCount;
+		rowCount += count;
+		return first;
+	}
+
+	/**
+	 * Add rows at the end of the array holding values copied from the given
+	 * array. The rows are only added if all values could be copied.
+	 *
+	 * @param source
+	 *            the array holding the values, of the type of the values
+	 * @param offset
+	 *            the position of the first value in <code>source</code>
+	 * @param length
+	 *            the number of values to append
+	 */
+	void appendValues(Object source, int offset, int length) {
+		ensureCapacity(rowCount + Math.max(length, 0));
+		System.arraycopy(source, offset, getArray(), rowCount, length);
+		rowCount += length;
+	}
+
+	/**
+	 * Make room for a new row before the given row by moving the following
+	 * rows. The value of the new row has to be set by the caller.
+	 *
+	 * @param row
+	 *            the position of the new row
+	 */
+	void openRow(int row) {
+		checkRow(row, rowCount + 1);
+		ensureCapacity(rowCount + 1);
+		Object array = getArray();
+		System.arraycopy(array, row, array, row + 1, rowCount - row);
+		rowCount++;
+	}
+
+	/**
+	 * Grow the array of values to hold at least the given number of rows.
+	 *
+	 * @param capacity
+	 *            the number of rows needed
+	 */
+	private void ensureCapacity(int capacity) {
+		Object array = getArray();
+		int length = Array.getLength(array);
+		if (capacity <= length)
+			return;
+		Object grown = Array.newInstance(array.getClass().getComponentType(),
+				grownCapacity(length, capacity));
+		System.arraycopy(array, 0, grown, 0, rowCount);
+		setArray(grown);
+	}
+
+}
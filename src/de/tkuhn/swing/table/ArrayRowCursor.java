@@ -0,0 +1,104 @@
+/*
+ * ArrayRowCursor.java
+ *
+ * Created on 17. Oktober 2026, 17:15
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+/**
+ * A <code>RowCursor</code> delivering the rows of a ready-made permutation
+ * held in an <code>int</code> array.
+ *
+ * @see de.tkuhn.swing.table.SortableTableModel
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class ArrayRowCursor implements RowCursor {
+
+	/** The rows to deliver */
+	private final int[] rows;
+
+	/** The end of the rows to deliver */
+	private final int to;
+
+	/** The index of the next row to deliver */
+	private int next;
+
+	/**
+	 * Creates a new instance of ArrayRowCursor delivering all rows of the
+	 * array.
+	 *
+	 * @param rows
+	 *            the rows in the order to deliver them
+	 */
+	public ArrayRowCursor(int[] rows) {
+		this(rows, 0, rows.length);
+	}
+
+	/**
+	 * Creates a new instance of ArrayRowCursor delivering the rows
+	 * <code>from</code> to <code>to</code> (exclusive) of the array.
+	 *
+	 * @param rows
+	 *            the rows in the order to deliver them
+	 * @param from
+	 *            the index of the first row to deliver
+	 * @param to
+	 *            the end of the rows to deliver
+	 */
+	public ArrayRowCursor(int[] rows, int from, int to) {
+		if (from < 0 || to > rows.length || from > to)
+			throw new ArrayIndexOutOfBoundsException("Illegal range [" + from
+					+ ", " + to + ")");
+		this.rows = rows;
+		this.next = from;
+		this.to = to;
+	}
+
+	/**
+	 * Implementation of <code>nextRow()</code> in the interface
+	 * <code>RowCursor</code>.
+	 *
+	 * @see de.tkuhn.swing.table.RowCursor
+	 */
+	public int nextRow() {
+		return (next < to) ? rows[next++] : -1;
+	}
+
+	/**
+	 * Implementation of <code>close()</code> in the interface
+	 * <code>RowCursor</code>. Nothing to release.
+	 *
+	 * @see de.tkuhn.swing.table.RowCursor
+	 */
+	public void close() {
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * CoalescedEvents.java
+ *
+ * Created on 17. Oktober 2026, 21:20
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.BitSet;
+
+import javax.swing.event.TableModelEvent;
+
+/**
+ * Events of a model merged while they are collected. Updated rows are
+ * kept in a set numbered like the rows the model has now. Inserts are
+ * merged into one block of rows if they are adjacent, as are deletes.
+ * Events that can not be merged mark all rows as changed.
+ * 
+ * @see de.tkuhn.swing.table.RowSortingTableModel#setCoalescingDelay
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+class CoalescedEvents {
+
+	/** True if the columns of the model have changed */
+	boolean structureChanged = false;
+
+	/** True if all rows have to be filtered and sorted again */
+	boolean dataChanged = false;
+
+	/** The first of the inserted rows as numbered now or -1 if none */
+	int insertFirst = -1;
+
+	/** The last of the inserted rows as numbered now */
+	int insertLast = -1;
+
+	/** The first deleted row as numbered before or -1 if none */
+	int deleteFirst = -1;
+
+	/** The last deleted row as numbered before */
+	int deleteLast = -1;
+
+	/** The updated rows that have not been inserted */
+	BitSet updated = new BitSet();
+
+	/** The column changed in all updated rows or <code>ALL_COLUMNS</code> */
+	int updatedColumn = TableModelEvent.ALL_COLUMNS;
+
+	/**
+	 * Merge the given event into the events collected so far.
+	 * 
+	 * @param tme
+	 *            the event of the model
+	 * @param rows
+	 *            the number of rows the model has after the event
+	 */
+	void add(TableModelEvent tme, int rows) {
+		int first = tme.getFirstRow();
+		int last = tme.getLastRow();
+		if (first == TableModelEvent.HEADER_ROW)
+			structureChanged = true;
+		if (structureChanged || dataChanged)
+			return;
+		int count = last - first + 1;
+		if (first < 0 || count <= 0) {
+			dataChanged = true;
+		} else if (tme.getType() == TableModelEvent.INSERT) {
+			if (deleteFirst >= 0 || last >= rows || (insertFirst >= 0
+					&& (first < insertFirst || first > insertLast + 1))) {
+				dataChanged = true;
+				return;
+			}
+			if (insertFirst < 0) {
+				insertFirst = first;
+				insertLast = last;
+			} else {
+				insertLast += count;
+			}
+			shift(first, count);
+		} else if (tme.getType() == TableModelEvent.DELETE) {
+			if (insertFirst >= 0 && first >= insertFirst
+					&& last <= insertLast) {
+				insertLast -= count;
+				if (insertLast < insertFirst)
+					insertFirst = insertLast = -1;
+			} else if (insertFirst < 0 && deleteFirst < 0) {
+				deleteFirst = first;
+				deleteLast = last;
+			} else if (insertFirst < 0 && first <= deleteFirst
+					&& deleteFirst <= last + 1) {
+				deleteLast = last + deleteLast - deleteFirst + 1;
+				deleteFirst = first;
+			} else {
+				dataChanged = true;
+				return;
+			}
+			updated.clear(first, last + 1);
+			shift(last + 1, -count);
+		} else if (last >= rows) {
+			dataChanged = true;
+		} else {
+			int column = tme.getColumn();
+			if (updated.isEmpty())
+				updatedColumn = column;
+			else if (updatedColumn != column)
+				updatedColumn = TableModelEvent.ALL_COLUMNS;
+			updated.set(first, last + 1);
+			if (insertFirst >= 0)
+				updated.clear(insertFirst, insertLast + 1);
+		}
+	}
+
+	/**
+	 * Move the updated rows from <code>from</code> on by
+	 * <code>delta</code> rows.
+	 * 
+	 * @param from
+	 *            the first row to move
+	 * @param delta
+	 *            the number of rows to move by
+	 */
+	private void shift(int from, int delta) {
+		int end = updated.length();
+		if (end <= from)
+			return;
+		BitSet moved = updated.get(from, end);
+		updated.clear(from, end);
+		for (int i = moved.nextSetBit(0); i >= 0; i = moved
+				.nextSetBit(i + 1))
+			updated.set(from + delta + i);
+	}
+
+	/**
+	 * Translate a row number the model had before the collected events
+	 * into the one it has now.
+	 * 
+	 * @param row
+	 *            the row number before the events
+	 * @return the row number now, -1 if the row has been deleted or the
+	 *         columns have changed. Unchanged if the row can not be
+	 *         followed.
+	 */
+	int translateRow(int row) {
+		if (structureChanged)
+			return -1;
+		if (dataChanged)
+			return row;
+		if (deleteFirst >= 0 && row >= deleteFirst) {
+			if (row <= deleteLast)
+				return -1;
+			row -= deleteLast - deleteFirst + 1;
+		}
+		if (insertFirst >= 0 && row >= insertFirst)
+			row += insertLast - insertFirst + 1;
+		return row;
+	}
+
+}
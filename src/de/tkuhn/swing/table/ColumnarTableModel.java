@@ -0,0 +1,327 @@
+/*
+ * ColumnarTableModel.java
+ *
+ * Created on 17. Oktober 2026, 20:05
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A <code>TableModel</code> storing its values by column in
+ * <code>DataColumn</code>s like <code>IntColumn</code>,
+ * <code>LongColumn</code>, <code>DoubleColumn</code>,
+ * <code>BooleanColumn</code> or <code>DictionaryColumn</code>. Each column
+ * keeps the values of all rows in a single array of a primitive type
+ * instead of one boxed object per value, and values are boxed only when
+ * they are fetched by <code>getValueAt(..)</code> for rendering.
+ * 
+ * The model provides the sort keys of its columns as primitive keys, so a
+ * <code>RowSortingTableModel</code> sorts and compares its rows by the
+ * keys without fetching any values.
+ * 
+ * Rows can be appended in bulk by appending values to all columns directly
+ * and calling <code>rowsAppended()</code> afterwards.
+ * 
+ * @see de.tkuhn.swing.table.DataColumn
+ * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class ColumnarTableModel extends AbstractTableModel implements
+		PrimitiveKeyTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The name of each column */
+	private final List<String> names = new ArrayList<String>();
+
+	/** The values of each column */
+	private final List<DataColumn> columns = new ArrayList<DataColumn>();
+
+	/** The number of rows listeners have been notified of */
+	private int rowCount = 0;
+
+	/** True if the values may be edited in a table */
+	private boolean editable = false;
+
+	/** Creates a new instance of ColumnarTableModel without columns */
+	public ColumnarTableModel() {
+	}
+
+	/**
+	 * Add a column. It must have as many rows as the columns added before.
+	 * Also notifies listeners of the changed structure.
+	 * 
+	 * @param name
+	 *            the name of the column
+	 * @param column
+	 *            the values of the column
+	 */
+	public void addColumn(String name, DataColumn column) {
+		if (!columns.isEmpty() && column.getRowCount() != rowCount)
+			throw new IllegalArgumentException("Column has "
+					+ column.getRowCount() + " rows instead of " + rowCount);
+		names.add(name);
+		columns.add(column);
+		rowCount = column.getRowCount();
+		fireTableStructureChanged();
+	}
+
+	/**
+	 * Get the values of the given column.
+	 * 
+	 * @param columnIndex
+	 *            the index of the column
+	 * @return the values of the column
+	 */
+	public DataColumn getColumn(int columnIndex) {
+		return columns.get(columnIndex);
+	}
+
+	/**
+	 * Notify listeners of the rows that have been appended to all columns
+	 * directly, e.g. in bulk using <code>IntColumn.addInts(..)</code>. All
+	 * columns must have the same number of rows.
+	 */
+	public void rowsAppended() {
+		int count = columns.isEmpty() ? 0 : columns.get(0).getRowCount();
+		for (int c = 1; c < columns.size(); c++) {
+			if (columns.get(c).getRowCount() != count)
+				throw new IllegalStateException("Column " + c + " has "
+						+ columns.get(c).getRowCount() + " rows instead of "
+						+ count);
+		}
+		if (count < rowCount)
+			throw new IllegalStateException("Rows have been removed");
+		int first = rowCount;
+		rowCount = count;
+		if (count > first)
+			fireTableRowsInserted(first, count - 1);
+	}
+
+	/**
+	 * Append a row with the given values. Also notifies listeners of the
+	 * inserted row.
+	 * 
+	 * @param values
+	 *            the value for each column
+	 */
+	public void addRow(Object[] values) {
+		insertRow(rowCount, values);
+	}
+
+	/**
+	 * Insert a row with the given values before the given row. All values
+	 * are checked before the row is inserted into any column. Also notifies
+	 * listeners of the inserted row.
+	 * 
+	 * @param row
+	 *            the position of the new row
+	 * @param values
+	 *            the value for each column
+	 * @throws IllegalArgumentException
+	 *             if a value is not legal for its column
+	 * @see DataColumn#checkValue
+	 */
+	public void insertRow(int row, Object[] values) {
+		if (values.length != columns.size())
+			throw new IllegalArgumentException(
+					"Need one value for each column");
+		DataColumn.checkRow(row, rowCount + 1);
+		for (int c = 0; c < values.length; c++)
+			columns.get(c).checkValue(values[c]);
+		for (int c = 0; c < values.length; c++)
+			columns.get(c).insertValue(row, values[c]);
+		rowCount++;
+		fireTableRowsInserted(row, row);
+	}
+
+	/**
+	 * Remove the rows <code>first</code> to <code>last</code>. Also notifies
+	 * listeners of the deleted rows.
+	 * 
+	 * @param first
+	 *            the first row to remove
+	 * @param last
+	 *            the last row to remove, not before <code>first</code>
+	 */
+	public void removeRows(int first, int last) {
+		DataColumn.checkRows(first, last, rowCount);
+		for (int c = 0; c < columns.size(); c++)
+			columns.get(c).removeValues(first, last);
+		rowCount -= last - first + 1;
+		fireTableRowsDeleted(first, last);
+	}
+
+	/**
+	 * Are the values of this model editable in a table?
+	 * 
+	 * @return Value of property editable.
+	 */
+	public boolean isEditable() {
+		return editable;
+	}
+
+	/**
+	 * Set if the values of this model may be edited in a table.
+	 * 
+	 * @param editable
+	 *            New value of property editable.
+	 */
+	public void setEditable(boolean editable) {
+		this.editable = editable;
+	}
+
+	/**
+	 * Implements <code>getRowCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Implements <code>getColumnCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getColumnCount() {
+		return columns.size();
+	}
+
+	/**
+	 * Implements <code>getColumnName(col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public String getColumnName(int columnIndex) {
+		return names.get(columnIndex);
+	}
+
+	/**
+	 * Implements <code>getColumnClass(col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public Class<?> getColumnClass(int columnIndex) {
+		return columns.get(columnIndex).getValueClass();
+	}
+
+	/**
+	 * Implements <code>getValueAt(row,col)</code> in the interface
+	 * <code>TableModel</code>. Primitive values are boxed.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		return columns.get(columnIndex).getValue(rowIndex);
+	}
+
+	/**
+	 * Implements <code>isCellEditable(row,col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public boolean isCellEditable(int rowIndex, int columnIndex) {
+		return editable;
+	}
+
+	/**
+	 * Implements <code>setValueAt(value,row,col)</code> in the interface
+	 * <code>TableModel</code>. Also notifies listeners of the changed value.
+	 * A table sets <code>null</code> if a cell is cleared while editing. The
+	 * cell keeps its value then unless the column allows <code>null</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
+		DataColumn column = columns.get(columnIndex);
+		if (aValue == null && !column.isNullAllowed())
+			return;
+		column.setValue(rowIndex, aValue);
+		fireTableCellUpdated(rowIndex, columnIndex);
+	}
+
+	/**
+	 * Implements <code>getComparator(columnIndex)</code> in the interface
+	 * <code>ComparatorTableModel</code>. Returns the comparator of the
+	 * column.
+	 * 
+	 * @see de.tkuhn.swing.table.ComparatorTableModel
+	 */
+	public Comparator<?> getComparator(int columnIndex) {
+		return columns.get(columnIndex).getComparator();
+	}
+
+	/**
+	 * Implements <code>isSortKeyExtractable(columnIndex)</code> in the
+	 * interface <code>SortKeyTableModel</code>. Values are not extracted,
+	 * the primitive keys are used instead.
+	 * 
+	 * @see de.tkuhn.swing.table.SortKeyTableModel
+	 */
+	public boolean isSortKeyExtractable(int columnIndex) {
+		return false;
+	}
+
+	/**
+	 * Implements <code>isPrimitiveKeyAvailable(columnIndex)</code> in the
+	 * interface <code>PrimitiveKeyTableModel</code>. All columns provide
+	 * primitive keys.
+	 * 
+	 * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+	 */
+	public boolean isPrimitiveKeyAvailable(int columnIndex) {
+		return true;
+	}
+
+	/**
+	 * Implements <code>getPrimitiveKey(rowIndex, columnIndex)</code> in the
+	 * interface <code>PrimitiveKeyTableModel</code>. Returns the sort key of
+	 * the column.
+	 * 
+	 * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+	 */
+	public long getPrimitiveKey(int rowIndex, int columnIndex) {
+		return columns.get(columnIndex).getSortKey(rowIndex);
+	}
+
+}
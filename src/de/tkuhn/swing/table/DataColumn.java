@@ -0,0 +1,236 @@
+/*
+ * DataColumn.java
+ *
+ * Created on 17. Oktober 2026, 19:40
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.Comparator;
+
+/**
+ * The values of a column stored for use in a <code>ColumnarTableModel</code>.
+ * Subclasses keep the values of all rows in a single array of a primitive
+ * type, so they need a fraction of the memory boxed values would and can
+ * be sorted without fetching the values.
+ *
+ * Each value has an unsigned <code>long</code> sort key whose order is the
+ * order <code>getComparator()</code> defines for the values. Equal values
+ * have equal keys and different values different keys.
+ *
+ * @see de.tkuhn.swing.table.ColumnarTableModel
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public abstract class DataColumn {
+
+	/**
+	 * Compares values in their natural order with <code>null</code> less
+	 * than everything else
+	 */
+	static final Comparator<Object> NATURAL_ORDER = new NaturalComparator();
+
+	/**
+	 * Get the number of rows of this column.
+	 *
+	 * @return the number of rows
+	 */
+	public abstract int getRowCount();
+
+	/**
+	 * Get the class of the values of this column.
+	 *
+	 * @return the class of the values
+	 */
+	public abstract Class<?> getValueClass();
+
+	/**
+	 * Get the value of the given row. Primitive values are boxed.
+	 *
+	 * @param row
+	 *            the row to get the value of
+	 * @return the value
+	 */
+	public abstract Object getValue(int row);
+
+	/**
+	 * Tells if the rows of this column can hold <code>null</code>.
+	 *
+	 * @return <code>true</code> if <code>null</code> is a legal value
+	 */
+	public boolean isNullAllowed() {
+		return false;
+	}
+
+	/**
+	 * Set the value of the given row.
+	 *
+	 * @param row
+	 *            the row to set the value of
+	 * @param value
+	 *            the new value, an instance of <code>getValueClass()</code>
+	 * @throws IllegalArgumentException
+	 *             if the value is not legal for this column
+	 * @see #checkValue
+	 */
+	public abstract void setValue(int row, Object value);
+
+	/**
+	 * Insert a row with the given value before the given row.
+	 *
+	 * @param row
+	 *            the position of the new row
+	 * @param value
+	 *            the value of the new row, an instance of
+	 *            <code>getValueClass()</code>
+	 * @throws IllegalArgumentException
+	 *             if the value is not legal for this column
+	 * @see #checkValue
+	 */
+	public abstract void insertValue(int row, Object value);
+
+	/**
+	 * Check if the given value can be stored in this column. That is an
+	 * instance of <code>getValueClass()</code> or <code>null</code> if
+	 * <code>isNullAllowed()</code>.
+	 *
+	 * @param value
+	 *            the value to check
+	 * @return the value
+	 * @throws IllegalArgumentException
+	 *             if the value is not legal for this column
+	 */
+	public Object checkValue(Object value) {
+		if (value == null ? !isNullAllowed() : !getValueClass().isInstance(
+				value))
+			throw new IllegalArgumentException("Illegal value for a column of "
+					+ getValueClass().getName() + ": " + value);
+		return value;
+	}
+
+	/**
+	 * Remove the rows <code>first</code> to <code>last</code>.
+	 *
+	 * @param first
+	 *            the first row to remove
+	 * @param last
+	 *            the last row to remove, not before <code>first</code>
+	 */
+	public abstract void removeValues(int first, int last);
+
+	/**
+	 * Get the unsigned sort key of the value of the given row.
+	 *
+	 * @param row
+	 *            the row to get the key of
+	 * @return the sort key
+	 */
+	public abstract long getSortKey(int row);
+
+	/**
+	 * Get the <code>Comparator</code> ordering the values of this column
+	 * like their sort keys.
+	 *
+	 * @return the comparator of the values
+	 */
+	public abstract Comparator<Object> getComparator();
+
+	/**
+	 * Check if the given row is in the range <code>[0, end)</code>.
+	 *
+	 * @param row
+	 *            the row to check
+	 * @param end
+	 *            the end of the valid range
+	 */
+	static void checkRow(int row, int end) {
+		if (row < 0 || row >= end)
+			throw new IndexOutOfBoundsException("Row " + row
+					+ " out of range [0, " + end + ")");
+	}
+
+	/**
+	 * Check if the rows <code>first</code> to <code>last</code> are a
+	 * range within <code>[0, end)</code>.
+	 *
+	 * @param first
+	 *            the first row of the range
+	 * @param last
+	 *            the last row of the range
+	 * @param end
+	 *            the end of the valid range
+	 */
+	static void checkRows(int first, int last, int end) {
+		checkRow(first, end);
+		checkRow(last, end);
+		if (first > last)
+			throw new IllegalArgumentException("First row " + first
+					+ " after last row " + last);
+	}
+
+	/**
+	 * Compute the capacity an array has to grow to.
+	 *
+	 * @param length
+	 *            the current length of the array
+	 * @param needed
+	 *            the number of elements the array has to hold
+	 * @return the new length of the array
+	 */
+	static int grownCapacity(int length, int needed) {
+		return Math.max(needed, length * 3 / 2 + 1);
+	}
+
+	/**
+	 * Compares values in their natural order with <code>null</code> less
+	 * than everything else.
+	 */
+	private static class NaturalComparator implements Comparator<Object> {
+
+		/**
+		 * Implementation of <code>compare(o1, o2)</code> in the interface
+		 * <code>java.util.Comparator</code>.
+		 *
+		 * @param o1
+		 *            the first value or <code>null</code>
+		 * @param o2
+		 *            the second value or <code>null</code>
+		 * @return the result of comparison
+		 */
+		@SuppressWarnings("unchecked")
+		public int compare(Object o1, Object o2) {
+			if (o1 == null)
+				return (o2 == null) ? 0 : -1;
+			if (o2 == null)
+				return 1;
+			return ((Comparable<Object>) o1).compareTo(o2);
+		}
+	}
+
+}
@@ -0,0 +1,320 @@
+/*
+ * DictionaryColumn.java
+ *
+ * Created on 17. Oktober 2026, 18:50
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.tkuhn.util.IntComparator;
+import de.tkuhn.util.IntSort;
+
+/**
+ * A dictionary encoded column of <code>String</code> values for use in a
+ * <code>TableModel</code>. Each distinct value is stored once in the
+ * dictionary and the rows hold <code>int</code> codes of their values. This
+ * saves memory for columns repeating few distinct values over many rows.
+ *
+ * The sorted codes of the rows number the distinct values in their sorted
+ * order. A <code>PrimitiveKeyTableModel</code> should return them as the
+ * primitive keys of the column and <code>getComparator()</code> as its
+ * <code>Comparator</code>. A <code>RowSortingTableModel</code> then sorts
+ * the column as integers without comparing strings. It can also be used as
+ * a column of a <code>ColumnarTableModel</code>. Removed rows leave their
+ * values in the dictionary.
+ *
+ * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+ * @see de.tkuhn.swing.table.ColumnarTableModel
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class DictionaryColumn extends ArrayColumn {
+
+	/** Code of the rows holding <code>null</code> */
+	public static final int NULL_CODE = -1;
+
+	/** The distinct values indexed by their code */
+	private String[] dictionary = new String[16];
+
+	/** The number of distinct values */
+	private int dictionarySize = 0;
+
+	/** The code of each distinct value */
+	private final Map<String, Integer> codes = new HashMap<String, Integer>();
+
+	/** The code of the value of each row */
+	private int[] rows = new int[16];
+
+	/**
+	 * The position of each code in the sorted dictionary counted from 1 or
+	 * <code>null</code> if values have been added since it was computed
+	 */
+	private int[] ranks = null;
+
+	/** Creates a new empty instance of DictionaryColumn */
+	public DictionaryColumn() {
+	}
+
+	/**
+	 * Get the value of the given row.
+	 *
+	 * @param row
+	 *            the row to get the value of
+	 * @return the value or <code>null</code>
+	 */
+	public String getValue(int row) {
+		int code = getCode(row);
+		return (code == NULL_CODE) ? null : dictionary[code];
+	}
+
+	/**
+	 * Set the value of the given row.
+	 *
+	 * @param row
+	 *            the row to set the value of
+	 * @param value
+	 *            the new value or <code>null</code>
+	 */
+	public void setValue(int row, String value) {
+		checkRow(row, rowCount);
+		rows[row] = encode(value);
+	}
+
+	/**
+	 * Implements <code>setValue(row, value)</code> of
+	 * <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public void setValue(int row, Object value) {
+		setValue(row, (String) checkValue(value));
+	}
+
+	/**
+	 * Append a row with the given value.
+	 *
+	 * @param value
+	 *            the value of the new row or <code>null</code>
+	 */
+	public void addValue(String value) {
+		insertValue(rowCount, value);
+	}
+
+	/**
+	 * Insert a row with the given value before the given row.
+	 *
+	 * @param row
+	 *            the position of the new row
+	 * @param value
+	 *            the value of the new row or <code>null</code>
+	 */
+	public void insertValue(int row, String value) {
+		openRow(row);
+		rows[row] = encode(value);
+	}
+
+	/**
+	 * Implements <code>insertValue(row, value)</code> of
+	 * <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public void insertValue(int row, Object value) {
+		insertValue(row, (String) checkValue(value));
+	}
+
+	/**
+	 * Get the code of the value of the given row. Codes are assigned to the
+	 * distinct values in the order they are added.
+	 *
+	 * @param row
+	 *            the row to get the code of
+	 * @return the code or <code>NULL_CODE</code>
+	 */
+	public int getCode(int row) {
+		checkRow(row, rowCount);
+		return rows[row];
+	}
+
+	/**
+	 * Get the number of distinct values stored in the dictionary.
+	 *
+	 * @return the number of distinct values
+	 */
+	public int getDictionarySize() {
+		return dictionarySize;
+	}
+
+	/**
+	 * Get the code of the value of the given row in the sorted order of the
+	 * distinct values. <code>null</code> has code 0, the values are numbered
+	 * from 1 on. The codes are renumbered when new values are added.
+	 *
+	 * @param row
+	 *            the row to get the sorted code of
+	 * @return the sorted code
+	 */
+	public int getSortedCode(int row) {
+		int code = getCode(row);
+		if (code == NULL_CODE)
+			return 0;
+		if (ranks == null)
+			ranks = computeRanks(dictionary, dictionarySize);
+		return ranks[code];
+	}
+
+	/**
+	 * Implements <code>isNullAllowed()</code> of <code>DataColumn</code>.
+	 * Rows may hold <code>null</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public boolean isNullAllowed() {
+		return true;
+	}
+
+	/**
+	 * Implements <code>getValueClass()</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public Class<?> getValueClass() {
+		return String.class;
+	}
+
+	/**
+	 * Implements <code>getSortKey(row)</code> of <code>DataColumn</code>.
+	 * The key is the sorted code of the row.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public long getSortKey(int row) {
+		return getSortedCode(row);
+	}
+
+	/**
+	 * Get a <code>Comparator</code> that orders the values like their sorted
+	 * codes. This is the natural order of strings with <code>null</code>
+	 * less than everything else.
+	 *
+	 * @return the comparator of the values
+	 */
+	public Comparator<Object> getComparator() {
+		return NATURAL_ORDER;
+	}
+
+	/**
+	 * Get the code of the given value adding it to the dictionary if it is
+	 * not contained yet.
+	 *
+	 * @param value
+	 *            the value to encode
+	 * @return the code of the value
+	 */
+	private int encode(String value) {
+		if (value == null)
+			return NULL_CODE;
+		Integer code = codes.get(value);
+		if (code != null)
+			return code.intValue();
+		if (dictionarySize == dictionary.length) {
+			String[] grown = new String[dictionarySize * 2];
+			System.arraycopy(dictionary, 0, grown, 0, dictionarySize);
+			dictionary = grown;
+		}
+		dictionary[dictionarySize] = value;
+		codes.put(value, Integer.valueOf(dictionarySize));
+		ranks = null;
+		return dictionarySize++;
+	}
+
+	/**
+	 * Implements <code>getArray()</code> of <code>ArrayColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.ArrayColumn
+	 */
+	Object getArray() {
+		return rows;
+	}
+
+	/**
+	 * Implements <code>setArray(array)</code> of <code>ArrayColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.ArrayColumn
+	 */
+	void setArray(Object array) {
+		rows = (int[]) array;
+	}
+
+	/**
+	 * Sort the codes of a dictionary by their values.
+	 *
+	 * @param dictionary
+	 *            the value of each code, none of them <code>null</code>
+	 * @param size
+	 *            the number of codes
+	 * @return the position of each code in the sorted dictionary counted
+	 *         from 1, equal values share their position
+	 */
+	static int[] computeRanks(final String[] dictionary, int size) {
+		int[] order = new int[size];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		IntSort.sort(order, new IntComparator() {
+
+			/**
+			 * Implementation of <code>compare(int,int)</code> in the interface
+			 * <code>de.tkuhn.util.IntComparator</code> used to sort the codes.
+			 *
+			 * @param c1
+			 *            code one to be compared
+			 * @param c2
+			 *            code two to be compared
+			 * @return the result of comparing the values of the codes
+			 */
+			public int compare(int c1, int c2) {
+				return dictionary[c1].compareTo(dictionary[c2]);
+			}
+		});
+		int[] result = new int[size];
+		int rank = 0;
+		for (int i = 0; i < order.length; i++) {
+			if (i == 0
+					|| !dictionary[order[i]].equals(dictionary[order[i - 1]]))
+				rank++;
+			result[order[i]] = rank;
+		}
+		return result;
+	}
+
+}
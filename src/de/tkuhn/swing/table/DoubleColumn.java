@@ -0,0 +1,210 @@
+/*
+ * DoubleColumn.java
+ *
+ * Created on 17. Oktober 2026, 19:55
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.Comparator;
+
+import de.tkuhn.util.RadixSort;
+
+/**
+ * A column of <code>double</code> values for use in a
+ * <code>ColumnarTableModel</code>. The values are kept in a single growing
+ * array and boxed only when they are fetched as objects. Values can be
+ * appended in bulk.
+ *
+ * @see de.tkuhn.swing.table.ColumnarTableModel
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class DoubleColumn extends ArrayColumn {
+
+	/** The value of each row */
+	private double[] values;
+
+	/** Creates a new empty instance of DoubleColumn */
+	public DoubleColumn() {
+		this(16);
+	}
+
+	/**
+	 * Creates a new empty instance of DoubleColumn with room for the given
+	 * number of rows.
+	 *
+	 * @param capacity
+	 *            the number of rows to make room for
+	 */
+	public DoubleColumn(int capacity) {
+		values = new double[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Get the value of the given row.
+	 *
+	 * @param row
+	 *            the row to get the value of
+	 * @return the value
+	 */
+	public double getDouble(int row) {
+		checkRow(row, rowCount);
+		return values[row];
+	}
+
+	/**
+	 * Set the value of the given row.
+	 *
+	 * @param row
+	 *            the row to set the value of
+	 * @param value
+	 *            the new value
+	 */
+	public void setDouble(int row, double value) {
+		checkRow(row, rowCount);
+		values[row] = value;
+	}
+
+	/**
+	 * Append a row with the given value.
+	 *
+	 * @param value
+	 *            the value of the new row
+	 */
+	public void addDouble(double value) {
+		int row = appendRows(1);
+		values[row] = value;
+	}
+
+	/**
+	 * Append rows with the given values.
+	 *
+	 * @param source
+	 *            the array holding the values
+	 * @param offset
+	 *            the position of the first value in <code>source</code>
+	 * @param length
+	 *            the number of values to append
+	 */
+	public void addDoubles(double[] source, int offset, int length) {
+		appendValues(source, offset, length);
+	}
+
+	/**
+	 * Insert a row with the given value before the given row.
+	 *
+	 * @param row
+	 *            the position of the new row
+	 * @param value
+	 *            the value of the new row
+	 */
+	public void insertDouble(int row, double value) {
+		openRow(row);
+		values[row] = value;
+	}
+
+	/**
+	 * Implements <code>getValueClass()</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public Class<?> getValueClass() {
+		return Double.class;
+	}
+
+	/**
+	 * Implements <code>getValue(row)</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public Object getValue(int row) {
+		return Double.valueOf(getDouble(row));
+	}
+
+	/**
+	 * Implements <code>setValue(row, value)</code> of
+	 * <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public void setValue(int row, Object value) {
+		setDouble(row, ((Double) checkValue(value)).doubleValue());
+	}
+
+	/**
+	 * Implements <code>insertValue(row, value)</code> of
+	 * <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public void insertValue(int row, Object value) {
+		insertDouble(row, ((Double) checkValue(value)).doubleValue());
+	}
+
+	/**
+	 * Implements <code>getSortKey(row)</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public long getSortKey(int row) {
+		return RadixSort.toSortableKey(getDouble(row));
+	}
+
+	/**
+	 * Implements <code>getComparator()</code> of <code>DataColumn</code>.
+	 * Values are ordered like <code>Double.compareTo(Double)</code> orders
+	 * them, so <code>-0.0</code> is less than <code>0.0</code> and
+	 * <code>NaN</code> is greater than all other values.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public Comparator<Object> getComparator() {
+		return NATURAL_ORDER;
+	}
+
+	/**
+	 * Implements <code>getArray()</code> of <code>ArrayColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.ArrayColumn
+	 */
+	Object getArray() {
+		return values;
+	}
+
+	/**
+	 * Implements <code>setArray(array)</code> of <code>ArrayColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.ArrayColumn
+	 */
+	void setArray(Object array) {
+		values = (double[]) array;
+	}
+
+}
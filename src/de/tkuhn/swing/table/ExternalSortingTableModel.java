@@ -0,0 +1,702 @@
+/*
+ * ExternalSortingTableModel.java
+ *
+ * Created on 17. Oktober 2026, 20:30
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.beans.ExceptionListener;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.AbstractTableModel;
+
+import de.tkuhn.util.ExternalSort;
+import de.tkuhn.util.KeySource;
+
+/**
+ * A <code>TableModel</code> showing the rows of a
+ * <code>PrimitiveKeyTableModel</code> sorted by the primitive keys of some
+ * of its columns, for models whose sorted row numbers should not be kept in
+ * the heap. The rows are sorted by <code>ExternalSort</code> in runs of
+ * bounded length that are merged into a file. The file is mapped into
+ * memory and <code>getModelRow(row)</code> reads the sorted row numbers
+ * directly from it.
+ * 
+ * Unlike <code>RowSortingTableModel</code> this model only maps sorted to
+ * original rows and does not filter rows. Changes of the model that may
+ * change the order sort all rows again, so it is meant for large models
+ * that change seldom, like a <code>MappedTableModel</code>. Changes are
+ * collected for the coalescing delay and sorted once for each burst. If
+ * sorting after a change fails the rows are shown in their original order,
+ * the exception listener is told and the exception is kept until the next
+ * sort.
+ * 
+ * @see #setCoalescingDelay
+ * @see #setExceptionListener
+ * @see #getSortException
+ * @see de.tkuhn.util.ExternalSort
+ * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+ * @see de.tkuhn.swing.table.RowSortingTableModel
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class ExternalSortingTableModel extends AbstractTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Number of bits of the row numbers selecting the row within a chunk */
+	private static final int CHUNK_SHIFT = 24;
+
+	/** Number of rows mapped by each buffer */
+	private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+
+	/** Default number of rows sorted in memory at once */
+	public static final int DEFAULT_RUN_ROWS = 1 << 20;
+
+	/** The model whose rows are sorted */
+	private PrimitiveKeyTableModel model;
+
+	/** The listener keeping this model in sync with the sorted model */
+	private TableModelListener tableModelListener;
+
+	/** The columns the rows are sorted by */
+	private int[] sortColumns = new int[0];
+
+	/** The sort order of each sort column, <code>true</code> if ascending */
+	private boolean[] sortOrders = new boolean[0];
+
+	/** The maximum number of rows sorted in memory at once */
+	private int runRows = DEFAULT_RUN_ROWS;
+
+	/** The directory of the temporary files or <code>null</code> */
+	private File tempDirectory = null;
+
+	/** The file holding the sorted row numbers or <code>null</code> */
+	private File permutationFile = null;
+
+	/** The mapped sorted row numbers or <code>null</code> if not sorted */
+	private IntBuffer[] chunks = null;
+
+	/** Files of earlier sorts that could not be deleted yet */
+	private List<File> staleFiles = new ArrayList<File>();
+
+	/** The number of rows the listeners know of */
+	private int rowCount;
+
+	/**
+	 * Milliseconds changes of the model are collected before the rows are
+	 * sorted again, 0 for once per pass of the event dispatch thread or -1
+	 * if each change is processed at once
+	 */
+	private int coalescingDelay = 0;
+
+	/** The events of the model collected so far or null if there are none */
+	private CoalescedEvents coalescedEvents = null;
+
+	/** Processes the collected events after the coalescing delay */
+	private Timer coalescingTimer = null;
+
+	/** Processes the collected events on the event dispatch thread */
+	private Runnable eventProcessor = null;
+
+	/** Told of failed sorts after changes of the model or <code>null</code> */
+	private ExceptionListener exceptionListener = null;
+
+	/** Why sorting after a change of the model failed or <code>null</code> */
+	private IOException sortException = null;
+
+	/**
+	 * Create a new <code>ExternalSortingTableModel</code> showing the rows
+	 * of the given model in their original order.
+	 * 
+	 * @param model
+	 *            the model whose rows are to be sorted
+	 */
+	public ExternalSortingTableModel(PrimitiveKeyTableModel model) {
+		if (model == null)
+			throw new IllegalArgumentException("Model must not be null");
+		this.model = model;
+		rowCount = model.getRowCount();
+		tableModelListener = new TableModelListener() {
+
+			/**
+			 * Implementation of <code>tableChanged(event)</code> in the
+			 * interface <code>javax.swing.event.TableModelListener</code>.
+			 * 
+			 * @param tme
+			 *            the event to process
+			 * @see javax.swing.event.TableModelListener
+			 */
+			public void tableChanged(TableModelEvent tme) {
+				coalesceEvent(tme);
+			}
+		};
+		eventProcessor = new Runnable() {
+
+			/**
+			 * Implementation of <code>run()</code> in the interface
+			 * <code>java.lang.Runnable</code> processing the collected events
+			 * of the model.
+			 */
+			public void run() {
+				processCoalescedEvents();
+			}
+		};
+		model.addTableModelListener(tableModelListener);
+	}
+
+	/**
+	 * Returns the model whose rows are sorted.
+	 * 
+	 * @return the sorted model
+	 */
+	public PrimitiveKeyTableModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Returns the maximum number of rows sorted in memory at once.
+	 * 
+	 * @return the number of rows per run
+	 */
+	public int getRunRows() {
+		return runRows;
+	}
+
+	/**
+	 * Sets the maximum number of rows sorted in memory at once. Sorting
+	 * needs about <code>8 * columns + 24</code> bytes per row of a run.
+	 * Models with more rows are sorted in several runs that are merged
+	 * through temporary files. Takes effect with the next sort.
+	 * 
+	 * @param runRows
+	 *            the number of rows per run, greater than 0
+	 */
+	public void setRunRows(int runRows) {
+		if (runRows <= 0)
+			throw new IllegalArgumentException("Illegal run rows: " + runRows);
+		this.runRows = runRows;
+	}
+
+	/**
+	 * Returns the directory of the temporary files.
+	 * 
+	 * @return the directory or <code>null</code> for the default
+	 *         temporary directory
+	 */
+	public File getTempDirectory() {
+		return tempDirectory;
+	}
+
+	/**
+	 * Sets the directory of the temporary files holding the runs and the
+	 * sorted row numbers. Takes effect with the next sort.
+	 * 
+	 * @param tempDirectory
+	 *            the directory or <code>null</code> for the default
+	 *            temporary directory
+	 */
+	public void setTempDirectory(File tempDirectory) {
+		this.tempDirectory = tempDirectory;
+	}
+
+	/**
+	 * Returns the time changes of the model are collected before the rows
+	 * are sorted again.
+	 * 
+	 * @return the delay in milliseconds, 0 for once per pass of the event
+	 *         dispatch thread or -1 if each change is processed at once
+	 */
+	public int getCoalescingDelay() {
+		return coalescingDelay;
+	}
+
+	/**
+	 * Sets the time changes of the model are collected before the rows are
+	 * sorted again. Sorting all rows after every single insert or delete of
+	 * a burst would write the temporary files over and over. Collected
+	 * changes are sorted once, updates of columns that are not sorted by
+	 * are never sorted.
+	 * 
+	 * Until the changes are processed the rows keep their previous order,
+	 * values are taken from the current rows of the model though. Rows
+	 * deleted meanwhile show <code>null</code> values.
+	 * 
+	 * @param coalescingDelay
+	 *            the delay in milliseconds, 0 to process the changes once
+	 *            per pass of the event dispatch thread and negative values
+	 *            to process each change at once
+	 * @see #processCoalescedEvents
+	 */
+	public void setCoalescingDelay(int coalescingDelay) {
+		processCoalescedEvents();
+		this.coalescingDelay = Math.max(coalescingDelay, -1);
+	}
+
+	/**
+	 * Returns the listener told of failed sorts after changes of the model.
+	 * 
+	 * @return the listener or <code>null</code>
+	 */
+	public ExceptionListener getExceptionListener() {
+		return exceptionListener;
+	}
+
+	/**
+	 * Sets the listener told of failed sorts after changes of the model.
+	 * The sort columns are kept, so the listener may retry by calling
+	 * <code>sort(getSortColumns(), getSortOrders())</code>.
+	 * 
+	 * @param exceptionListener
+	 *            the listener or <code>null</code>
+	 */
+	public void setExceptionListener(ExceptionListener exceptionListener) {
+		this.exceptionListener = exceptionListener;
+	}
+
+	/**
+	 * Returns why sorting the rows again after a change of the model failed.
+	 * The exception is kept until the rows are sorted successfully.
+	 * 
+	 * @return the exception or <code>null</code> if the last sort succeeded
+	 */
+	public IOException getSortException() {
+		return sortException;
+	}
+
+	/**
+	 * Returns the columns the rows are sorted by.
+	 * 
+	 * @return the sort columns, empty if the rows are in original order
+	 */
+	public int[] getSortColumns() {
+		return sortColumns.clone();
+	}
+
+	/**
+	 * Returns the sort order of each sort column.
+	 * 
+	 * @return <code>true</code> for each ascending sort column
+	 */
+	public boolean[] getSortOrders() {
+		return sortOrders.clone();
+	}
+
+	/**
+	 * Sort the rows by a single column. A column of
+	 * <code>RowSortingTableModel.NO_COLUMN</code> restores the original
+	 * order.
+	 * 
+	 * @param column
+	 *            the column to sort by
+	 * @param order
+	 *            <code>true</code> for ascending order
+	 * @throws IOException
+	 *             if the temporary files can not be written or mapped
+	 */
+	public void sort(int column, boolean order) throws IOException {
+		if (column == RowSortingTableModel.NO_COLUMN)
+			sort(new int[0], new boolean[0]);
+		else
+			sort(new int[] { column }, new boolean[] { order });
+	}
+
+	/**
+	 * Sort the rows by several columns. Rows with equal keys in the first
+	 * column are ordered by the second column and so on. Rows with equal
+	 * keys in all columns keep their original order. Changes of the model
+	 * collected so far are taken into account. If the sort fails the
+	 * previous order is kept.
+	 * 
+	 * @param columns
+	 *            the columns to sort by, empty for the original order
+	 * @param orders
+	 *            <code>true</code> for each column to be sorted ascending
+	 * @throws IOException
+	 *             if the temporary files can not be written or mapped
+	 */
+	public void sort(int[] columns, boolean[] orders) throws IOException {
+		if (columns.length != orders.length)
+			throw new IllegalArgumentException(
+					"Need one order per sort column");
+		for (int i = 0; i < columns.length; i++)
+			if (columns[i] < 0 || columns[i] >= model.getColumnCount()
+					|| !model.isPrimitiveKeyAvailable(columns[i]))
+				throw new IllegalArgumentException("No primitive keys in column "
+						+ columns[i]);
+		columns = columns.clone();
+		orders = orders.clone();
+		IntBuffer[] sorted = null;
+		File file = null;
+		if (columns.length > 0) {
+			file = File.createTempFile("rows", ".tmp", tempDirectory);
+			try {
+				sorted = sortRows(columns, orders, file);
+			} catch (IOException e) {
+				deleteFile(file);
+				throw e;
+			}
+		}
+		discardCoalescedEvents();
+		releasePermutation();
+		sortColumns = columns;
+		sortOrders = orders;
+		permutationFile = file;
+		chunks = sorted;
+		sortException = null;
+		rowCount = model.getRowCount();
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Sort all rows of the model by the given columns into the given file
+	 * and map it.
+	 * 
+	 * @param columns
+	 *            the columns to sort by
+	 * @param orders
+	 *            <code>true</code> for each column to be sorted ascending
+	 * @param file
+	 *            the file to hold the sorted row numbers
+	 * @return the buffers holding the sorted row numbers
+	 * @throws IOException
+	 *             if the temporary files can not be written or mapped
+	 */
+	private IntBuffer[] sortRows(final int[] columns, final boolean[] orders,
+			File file) throws IOException {
+		int rowCount = model.getRowCount();
+		ExternalSort.sort(new KeySource() {
+
+			/**
+			 * Implementation of <code>getKey(element, key)</code> in the
+			 * interface <code>de.tkuhn.util.KeySource</code>. Descending
+			 * columns provide the complement of the key of the model.
+			 * 
+			 * @see de.tkuhn.util.KeySource
+			 */
+			public long getKey(int element, int key) {
+				long value = model.getPrimitiveKey(element, columns[key]);
+				return orders[key] ? value : ~value;
+			}
+		}, rowCount, columns.length, runRows, tempDirectory, file);
+
+		RandomAccessFile access = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = access.getChannel();
+			IntBuffer[] sorted = new IntBuffer[(rowCount + CHUNK_ROWS - 1)
+					>>> CHUNK_SHIFT];
+			for (int i = 0; i < sorted.length; i++) {
+				int rows = Math.min(CHUNK_ROWS, rowCount - (i << CHUNK_SHIFT));
+				sorted[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+						(long) i << (CHUNK_SHIFT + 2), (long) rows << 2)
+						.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+			}
+			return sorted;
+		} finally {
+			access.close();
+		}
+	}
+
+	/**
+	 * Drop the sorted row numbers and delete their file.
+	 */
+	private void releasePermutation() {
+		chunks = null;
+		deleteStaleFiles();
+		if (permutationFile != null) {
+			deleteFile(permutationFile);
+			permutationFile = null;
+		}
+	}
+
+	/**
+	 * Delete a file of sorted row numbers. A file that is still mapped can
+	 * not be deleted on some platforms like Windows until the mapping is
+	 * garbage collected, so it is tried again with the next release and
+	 * finally on exit.
+	 * 
+	 * @param file
+	 *            the file to delete
+	 */
+	private void deleteFile(File file) {
+		if (!file.delete() && file.exists()) {
+			file.deleteOnExit();
+			staleFiles.add(file);
+		}
+	}
+
+	/** Delete the files of earlier sorts that are not mapped anymore */
+	private void deleteStaleFiles() {
+		for (Iterator<File> i = staleFiles.iterator(); i.hasNext();) {
+			File file = i.next();
+			if (file.delete() || !file.exists())
+				i.remove();
+		}
+	}
+
+	/**
+	 * Collect the given event of the model to be processed together with the
+	 * following ones. The first event collected schedules their processing.
+	 * 
+	 * @param tme
+	 *            the event to collect
+	 * @see #setCoalescingDelay
+	 */
+	private void coalesceEvent(TableModelEvent tme) {
+		if (coalescedEvents == null) {
+			coalescedEvents = new CoalescedEvents();
+			if (coalescingDelay == 0) {
+				SwingUtilities.invokeLater(eventProcessor);
+			} else if (coalescingDelay > 0) {
+				if (coalescingTimer == null) {
+					coalescingTimer = new Timer(coalescingDelay,
+							new ActionListener() {
+
+								/**
+								 * Implementation of
+								 * <code>actionPerformed(e)</code> in the
+								 * interface
+								 * <code>java.awt.event.ActionListener</code>
+								 * processing the collected events of the
+								 * model.
+								 * 
+								 * @param e
+								 *            the event to process
+								 */
+								public void actionPerformed(ActionEvent e) {
+									processCoalescedEvents();
+								}
+							});
+					coalescingTimer.setRepeats(false);
+				}
+				coalescingTimer.setInitialDelay(coalescingDelay);
+				coalescingTimer.restart();
+			}
+		}
+		coalescedEvents.add(tme, model.getRowCount());
+		if (coalescingDelay < 0)
+			processCoalescedEvents();
+	}
+
+	/**
+	 * Process the changes of the model collected so far at once. The rows
+	 * are sorted again unless only columns were updated that are not sorted
+	 * by. If that fails the original order is shown, the exception is kept
+	 * and the exception listener is told. Does nothing if no changes are
+	 * collected.
+	 * 
+	 * @see #setCoalescingDelay
+	 * @see #setExceptionListener
+	 * @see #getSortException
+	 */
+	public void processCoalescedEvents() {
+		CoalescedEvents events = coalescedEvents;
+		if (events == null)
+			return;
+		discardCoalescedEvents();
+		if (events.structureChanged) {
+			releasePermutation();
+			sortColumns = new int[0];
+			sortOrders = new boolean[0];
+			rowCount = model.getRowCount();
+			fireTableStructureChanged();
+			return;
+		}
+		if (sortColumns.length == 0 || (chunks != null
+				&& !events.dataChanged && events.insertFirst < 0
+				&& events.deleteFirst < 0
+				&& (events.updated.isEmpty()
+						|| !isSortColumn(events.updatedColumn)))) {
+			// the order of the rows is unchanged
+			rowCount = model.getRowCount();
+			fireTableDataChanged();
+			return;
+		}
+		try {
+			sort(sortColumns, sortOrders);
+		} catch (IOException e) {
+			releasePermutation();
+			rowCount = model.getRowCount();
+			sortException = e;
+			fireTableDataChanged();
+			if (exceptionListener != null)
+				exceptionListener.exceptionThrown(e);
+		}
+	}
+
+	/** Drop the collected events of the model without processing them */
+	private void discardCoalescedEvents() {
+		coalescedEvents = null;
+		if (coalescingTimer != null)
+			coalescingTimer.stop();
+	}
+
+	/**
+	 * Returns if a change of the given column may change the sorted order.
+	 * 
+	 * @param column
+	 *            the changed column or <code>TableModelEvent.ALL_COLUMNS</code>
+	 * @return <code>true</code> if the rows have to be sorted again
+	 */
+	private boolean isSortColumn(int column) {
+		if (column == TableModelEvent.ALL_COLUMNS)
+			return true;
+		for (int i = 0; i < sortColumns.length; i++)
+			if (sortColumns[i] == column)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Returns the original row number for a sorted row number. Reads the
+	 * row number from the mapped file if the rows are sorted. While changes
+	 * of the model are collected the row number the model has now is
+	 * returned.
+	 * 
+	 * @param row
+	 *            the sorted row number
+	 * @return the original row number or -1 if the row has been deleted
+	 * @see #setCoalescingDelay
+	 */
+	public int getModelRow(int row) {
+		IntBuffer[] sorted = chunks;
+		int modelRow = (sorted == null) ? row : sorted[row >>> CHUNK_SHIFT]
+				.get(row & (CHUNK_ROWS - 1));
+		CoalescedEvents events = coalescedEvents;
+		if (events == null)
+			return modelRow;
+		modelRow = events.translateRow(modelRow);
+		return (modelRow < model.getRowCount()) ? modelRow : -1;
+	}
+
+	/**
+	 * Stop listening to the model and delete the file of the sorted row
+	 * numbers. The rows are shown in their original order afterwards. Should
+	 * be called when the model is not needed anymore, since the file is not
+	 * deleted on exit.
+	 */
+	public void dispose() {
+		model.removeTableModelListener(tableModelListener);
+		discardCoalescedEvents();
+		releasePermutation();
+		sortColumns = new int[0];
+		sortOrders = new boolean[0];
+		rowCount = model.getRowCount();
+	}
+
+	/**
+	 * Implements <code>getRowCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Implements <code>getColumnCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getColumnCount() {
+		return model.getColumnCount();
+	}
+
+	/**
+	 * Implements <code>getColumnName(col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public String getColumnName(int columnIndex) {
+		return model.getColumnName(columnIndex);
+	}
+
+	/**
+	 * Implements <code>getColumnClass(col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public Class<?> getColumnClass(int columnIndex) {
+		return model.getColumnClass(columnIndex);
+	}
+
+	/**
+	 * Implements <code>getValueAt(row,col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		int row = getModelRow(rowIndex);
+		return (row >= 0) ? model.getValueAt(row, columnIndex) : null;
+	}
+
+	/**
+	 * Implements <code>isCellEditable(row,col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public boolean isCellEditable(int rowIndex, int columnIndex) {
+		int row = getModelRow(rowIndex);
+		return row >= 0 && model.isCellEditable(row, columnIndex);
+	}
+
+	/**
+	 * Implements <code>setValueAt(value,row,col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
+		int row = getModelRow(rowIndex);
+		if (row >= 0)
+			model.setValueAt(aValue, row, columnIndex);
+	}
+
+}
@@ -31,11 +31,19 @@
 
 package de.tkuhn.swing.table;
 
+import java.awt.Color;
 import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.event.ActionEvent;
 import java.util.Vector;
 
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.ActionMap;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.JTableHeader;
@@ -56,6 +64,10 @@ import javax.swing.table.TableModel;
  * obtained as a <code>Serializable</code> object to be made persistent. <b>
  * Attention: This might not work between different versions of this class </b>
  * 
+ * If sorting is done asynchronously the progress of the sort is shown at the
+ * bottom of the table header and the sort can be cancelled using the escape
+ * key.
+ * 
  * Functionality is achieved by using the
  * <code>ColumnStateTableColumnModel</code> and a
  * <code>RowSortingTableModel</code>
@@ -87,6 +99,18 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 	/** The ColumnStateTableColumnModel used */
 	private ColumnStateTableColumnModel columnModel = null;
 
+	/** The PermutationRowSorter used in row sorter mode or null */
+	private PermutationRowSorter rowSorter = null;
+
+	/** The progress of the running background sort or -1 */
+	private double sortProgress = -1;
+
+	/** Shows the progress of background sorts in the header */
+	private SortProgressListener sortProgressListener = null;
+
+	/** True if the columns are balanced once the pending events are done */
+	private boolean balancePending = false;
+
 	/**
 	 * Constructs a default <code>JUserFriendlyTable</code> that is initialized
 	 * with a default data model, a default column model, and a default
@@ -219,7 +243,9 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 	 * @see java.beans.XMLEncoder
 	 */
 	public Object getState() {
-		Object[] states = { columnModel.getState(), model.getState() };
+		Object sortState = (rowSorter != null) ? rowSorter.getState() : model
+				.getState();
+		Object[] states = { columnModel.getState(), sortState };
 		return states;
 	}
 
@@ -236,6 +262,9 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 	 */
 	public boolean setState(Object state) {
 		Object[] states = (Object[]) state;
+		if (rowSorter != null)
+			return columnModel.setState(states[0])
+					&& rowSorter.setState(states[1]);
 		return columnModel.setState(states[0]) && model.setState(states[1]);
 	}
 
@@ -259,6 +288,87 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 	private void installRowSorting() {
 		model = new RowSortingTableModel();
 		model.setupTableForRowSorting(this);
+		installSortProgress();
+	}
+
+	/**
+	 * Install the display of the progress of background sorts and the
+	 * cancellation of sorts using the escape key.
+	 */
+	private void installSortProgress() {
+		sortProgressListener = new SortProgressListener() {
+
+			/**
+			 * Implementation of <code>sortProgress(event)</code> in the
+			 * interface <code>SortProgressListener</code>.
+			 * 
+			 * @param e
+			 *            the event to process
+			 */
+			public void sortProgress(SortProgressEvent e) {
+				sortProgress = e.isDone() ? -1 : e.getProgress();
+				if (getTableHeader() != null)
+					getTableHeader().repaint();
+			}
+		};
+		model.addSortProgressListener(sortProgressListener);
+
+		// escape cancels sorting, otherwise editing as before
+		getActionMap().put("cancel", new AbstractAction() {
+
+			private static final long serialVersionUID = 1L;
+
+			/**
+			 * Cancels the running sort or the editing of a cell.
+			 * 
+			 * @param e
+			 *            the event to process
+			 */
+			public void actionPerformed(ActionEvent e) {
+				RowSortingTableModel sorting = getSortingModel();
+				if (sorting.isSorting()) {
+					sorting.cancelSort();
+				} else {
+					ActionMap parent = getActionMap().getParent();
+					Action cancel = (parent == null) ? null : parent
+							.get("cancel");
+					if (cancel != null)
+						cancel.actionPerformed(e);
+				}
+			}
+
+			/**
+			 * Only enabled while sorting or editing, so the escape key is
+			 * available to other components otherwise.
+			 * 
+			 * @return true if there is something to cancel
+			 */
+			public boolean isEnabled() {
+				return getSortingModel().isSorting() || isEditing();
+			}
+		});
+	}
+
+	/**
+	 * Get the <code>RowSortingTableModel</code> that holds the order of the
+	 * rows in the current mode.
+	 * 
+	 * @return the sorting model used
+	 */
+	private RowSortingTableModel getSortingModel() {
+		return (rowSorter != null) ? rowSorter.getRowSortingTableModel()
+				: model;
+	}
+
+	/**
+	 * <b>This method must not be called directly by user!</b> Overrides
+	 * <code>createDefaultTableHeader()</code> in <code>JTable</code>
+	 * 
+	 * @return a new <code>JTableHeader</code> showing the progress of
+	 *         background sorts
+	 */
+	protected JTableHeader createDefaultTableHeader() {
+		return new SortProgressHeader(getColumnModel());
 	}
 
 	/**
@@ -304,13 +414,18 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 	 * <code>RowSortingTableModel</code> this table uses is not replaced. The
 	 * given model is set at the sorting model instead. In addition if the new
 	 * model is similar to the old one the column hiding, size, position state
-	 * and row sorting state are preserved.
+	 * and row sorting state are preserved. In row sorter mode the model is set
+	 * at the table and its <code>PermutationRowSorter</code>.
 	 * 
 	 * @param aModel
 	 *            the new <code>TableModel</code> to be used
+	 * @see #isRowSorterMode
 	 */
 	public void setModel(TableModel aModel) {
-		if (initialized) {
+		if (rowSorter != null) {
+			rowSorter.setModel(aModel);
+			super.setModel(aModel);
+		} else if (initialized) {
 			Object state = null;
 			if (statePreserving)
 				state = columnModel.getState();
@@ -332,10 +447,12 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 	 * class. That does mean that <code>getModel()</code> does not return
 	 * <code>TableModel</code> instances set with <code>setModel(model)</code>.
 	 * To obtain the 'real' data model you should use
-	 * <code>getUnsortedModel()</code>
+	 * <code>getUnsortedModel()</code>. In row sorter mode the 'real' data
+	 * model is returned.
 	 * 
 	 * @return the <code>RowSortingTableModel</code> used by this table
 	 * @see #getUnsortedModel
+	 * @see #isRowSorterMode
 	 */
 	public TableModel getModel() {
 		return super.getModel();
@@ -348,7 +465,7 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 	 * @return the 'real' <code>TableModel</code> used by this table
 	 */
 	public TableModel getUnsortedModel() {
-		if (initialized)
+		if (initialized && rowSorter == null)
 			return model.getModel();
 		else
 			return super.getModel();
@@ -375,11 +492,36 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 		if (preserveState) {
 			if (!columnModel.setState(state))
 				balanceColumns();
+		} else if (rowSorter == null && model != null
+				&& model.getCoalescingDelay() >= 0) {
+			scheduleBalanceColumns();
 		} else {
 			balanceColumns();
 		}
 	}
 
+	/**
+	 * Balance the columns once after all events currently waiting on the
+	 * event dispatch thread, so bursts of changes do not measure all cells
+	 * for every single event.
+	 */
+	private void scheduleBalanceColumns() {
+		if (balancePending)
+			return;
+		balancePending = true;
+		SwingUtilities.invokeLater(new Runnable() {
+
+			/**
+			 * Implementation of <code>run()</code> in the interface
+			 * <code>java.lang.Runnable</code> balancing the columns.
+			 */
+			public void run() {
+				balancePending = false;
+				balanceColumns();
+			}
+		});
+	}
+
 	/**
 	 * Is the table preserving the column state on a model change or just
 	 * balancing columns?
@@ -403,4 +545,158 @@ public class JUserFriendlyTable extends JTable implements TableModelListener {
 		this.firePropertyChange("statePreserving", old, statePreserving);
 	}
 
+	/**
+	 * Is the table sorting its rows using a <code>PermutationRowSorter</code>
+	 * instead of wrapping its model in a <code>RowSortingTableModel</code>?
+	 * 
+	 * @return Value of property rowSorterMode.
+	 */
+	public boolean isRowSorterMode() {
+		return rowSorter != null;
+	}
+
+	/**
+	 * Set if the table should sort its rows using a
+	 * <code>PermutationRowSorter</code>. In row sorter mode
+	 * <code>getModel()</code> returns the 'real' data model and the table
+	 * converts between view and model row numbers using the sorter. So
+	 * selection and drag and drop refer to the rows of the data model. The
+	 * column and sorting state are kept when switching modes. Changes of the
+	 * model can not be collected in row sorter mode, so switching to it
+	 * sets the property coalescingDelay to -1.
+	 * 
+	 * @param rowSorterMode
+	 *            New value of property rowSorterMode.
+	 * @see de.tkuhn.swing.table.PermutationRowSorter
+	 */
+	public void setRowSorterMode(boolean rowSorterMode) {
+		boolean old = isRowSorterMode();
+		if (old == rowSorterMode)
+			return;
+		Object state = getState();
+		boolean asynchronous = isAsynchronousSorting();
+		int coalescingDelay = getCoalescingDelay();
+		getSortingModel().processCoalescedEvents();
+		getSortingModel().cancelSort();
+		getSortingModel().removeSortProgressListener(sortProgressListener);
+		if (rowSorterMode) {
+			TableModel raw = model.getModel();
+			model.uninstallHeaderExtension(this);
+			super.setModel(raw);
+			model.setModel(null);
+			rowSorter = new PermutationRowSorter(raw);
+			setRowSorter(rowSorter);
+		} else {
+			TableModel raw = rowSorter.getModel();
+			setRowSorter(null);
+			rowSorter = null;
+			model.setModel(raw);
+			super.setModel(model);
+			model.installHeaderExtension(this);
+		}
+		getSortingModel().setAsynchronous(asynchronous);
+		getSortingModel().addSortProgressListener(sortProgressListener);
+		setState(state);
+		this.firePropertyChange("rowSorterMode", old, rowSorterMode);
+		if (rowSorterMode)
+			this.firePropertyChange("coalescingDelay", coalescingDelay, -1);
+		else
+			getSortingModel().setCoalescingDelay(coalescingDelay);
+	}
+
+	/**
+	 * Is the table sorting its rows in the background?
+	 * 
+	 * @return Value of property asynchronousSorting.
+	 * @see RowSortingTableModel#isAsynchronous
+	 */
+	public boolean isAsynchronousSorting() {
+		return getSortingModel().isAsynchronous();
+	}
+
+	/**
+	 * Set if the table should sort its rows in the background. While sorting
+	 * the progress is shown at the bottom of the table header and the escape
+	 * key cancels the sort.
+	 * 
+	 * @param asynchronousSorting
+	 *            New value of property asynchronousSorting.
+	 * @see RowSortingTableModel#setAsynchronous
+	 */
+	public void setAsynchronousSorting(boolean asynchronousSorting) {
+		boolean old = isAsynchronousSorting();
+		getSortingModel().setAsynchronous(asynchronousSorting);
+		this.firePropertyChange("asynchronousSorting", old,
+				asynchronousSorting);
+	}
+
+	/**
+	 * Get the time changes of the model are collected before the table
+	 * shows them.
+	 * 
+	 * @return Value of property coalescingDelay.
+	 * @see RowSortingTableModel#getCoalescingDelay
+	 */
+	public int getCoalescingDelay() {
+		return getSortingModel().getCoalescingDelay();
+	}
+
+	/**
+	 * Set the time changes of the model are collected before the table shows
+	 * them. The collected changes are sorted in and the columns are balanced
+	 * once for all of them, which keeps the table responsive while the model
+	 * changes many rows in quick succession. In row sorter mode the
+	 * <code>JTable</code> has to pass each change to the sorter at once, so
+	 * changes can not be collected there.
+	 * 
+	 * @param coalescingDelay
+	 *            New value of property coalescingDelay in milliseconds, 0
+	 *            for once per pass of the event dispatch thread and -1 to
+	 *            show each change at once
+	 * @throws IllegalStateException
+	 *             if changes are to be collected in row sorter mode
+	 * @see RowSortingTableModel#setCoalescingDelay
+	 * @see #setRowSorterMode
+	 */
+	public void setCoalescingDelay(int coalescingDelay) {
+		if (rowSorter != null && coalescingDelay >= 0)
+			throw new IllegalStateException(
+					"Changes can not be collected in row sorter mode");
+		int old = getCoalescingDelay();
+		getSortingModel().setCoalescingDelay(coalescingDelay);
+		this.firePropertyChange("coalescingDelay", old, coalescingDelay);
+	}
+
+	/**
+	 * A table header that paints the progress of a running background sort
+	 * as a bar along its bottom edge.
+	 */
+	private class SortProgressHeader extends JTableHeader {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Height of the progress bar in pixels */
+		private static final int BAR_HEIGHT = 3;
+
+		SortProgressHeader(TableColumnModel cm) {
+			super(cm);
+		}
+
+		/**
+		 * Paints the header and the progress bar on top of it.
+		 * 
+		 * @param g
+		 *            the <code>Graphics</code> to paint on
+		 */
+		protected void paintComponent(Graphics g) {
+			super.paintComponent(g);
+			if (sortProgress >= 0) {
+				Color color = UIManager.getColor("ProgressBar.foreground");
+				g.setColor(color != null ? color : getSelectionBackground());
+				g.fillRect(0, getHeight() - BAR_HEIGHT,
+						(int) (getWidth() * sortProgress), BAR_HEIGHT);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,208 @@
+/*
+ * LongColumn.java
+ *
+ * Created on 17. Oktober 2026, 19:50
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.Comparator;
+
+import de.tkuhn.util.RadixSort;
+
+/**
+ * A column of <code>long</code> values for use in a
+ * <code>ColumnarTableModel</code>. The values are kept in a single growing
+ * array and boxed only when they are fetched as objects. Values can be
+ * appended in bulk.
+ *
+ * @see de.tkuhn.swing.table.ColumnarTableModel
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class LongColumn extends ArrayColumn {
+
+	/** The value of each row */
+	private long[] values;
+
+	/** Creates a new empty instance of LongColumn */
+	public LongColumn() {
+		this(16);
+	}
+
+	/**
+	 * Creates a new empty instance of LongColumn with room for the given
+	 * number of rows.
+	 *
+	 * @param capacity
+	 *            the number of rows to make room for
+	 */
+	public LongColumn(int capacity) {
+		values = new long[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Get the value of the given row.
+	 *
+	 * @param row
+	 *            the row to get the value of
+	 * @return the value
+	 */
+	public long getLong(int row) {
+		checkRow(row, rowCount);
+		return values[row];
+	}
+
+	/**
+	 * Set the value of the given row.
+	 *
+	 * @param row
+	 *            the row to set the value of
+	 * @param value
+	 *            the new value
+	 */
+	public void setLong(int row, long value) {
+		checkRow(row, rowCount);
+		values[row] = value;
+	}
+
+	/**
+	 * Append a row with the given value.
+	 *
+	 * @param value
+	 *            the value of the new row
+	 */
+	public void addLong(long value) {
+		int row = appendRows(1);
+		values[row] = value;
+	}
+
+	/**
+	 * Append rows with the given values.
+	 *
+	 * @param source
+	 *            the array holding the values
+	 * @param offset
+	 *            the position of the first value in <code>source</code>
+	 * @param length
+	 *            the number of values to append
+	 */
+	public void addLongs(long[] source, int offset, int length) {
+		appendValues(source, offset, length);
+	}
+
+	/**
+	 * Insert a row with the given value before the given row.
+	 *
+	 * @param row
+	 *            the position of the new row
+	 * @param value
+	 *            the value of the new row
+	 */
+	public void insertLong(int row, long value) {
+		openRow(row);
+		values[row] = value;
+	}
+
+	/**
+	 * Implements <code>getValueClass()</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public Class<?> getValueClass() {
+		return Long.class;
+	}
+
+	/**
+	 * Implements <code>getValue(row)</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public Object getValue(int row) {
+		return Long.valueOf(getLong(row));
+	}
+
+	/**
+	 * Implements <code>setValue(row, value)</code> of
+	 * <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public void setValue(int row, Object value) {
+		setLong(row, ((Long) checkValue(value)).longValue());
+	}
+
+	/**
+	 * Implements <code>insertValue(row, value)</code> of
+	 * <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public void insertValue(int row, Object value) {
+		insertLong(row, ((Long) checkValue(value)).longValue());
+	}
+
+	/**
+	 * Implements <code>getSortKey(row)</code> of <code>DataColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public long getSortKey(int row) {
+		return RadixSort.toSortableKey(getLong(row));
+	}
+
+	/**
+	 * Implements <code>getComparator()</code> of <code>DataColumn</code>.
+	 * Values are ordered naturally.
+	 *
+	 * @see de.tkuhn.swing.table.DataColumn
+	 */
+	public Comparator<Object> getComparator() {
+		return NATURAL_ORDER;
+	}
+
+	/**
+	 * Implements <code>getArray()</code> of <code>ArrayColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.ArrayColumn
+	 */
+	Object getArray() {
+		return values;
+	}
+
+	/**
+	 * Implements <code>setArray(array)</code> of <code>ArrayColumn</code>.
+	 *
+	 * @see de.tkuhn.swing.table.ArrayColumn
+	 */
+	void setArray(Object array) {
+		values = (long[]) array;
+	}
+
+}
@@ -0,0 +1,485 @@
+/*
+ * MappedTableModel.java
+ *
+ * Created on 17. Oktober 2026, 19:20
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import de.tkuhn.util.RadixSort;
+
+/**
+ * A read only <code>TableModel</code> whose columns are stored in a file
+ * and mapped into memory using <code>MappedByteBuffer</code>s. Values are
+ * only read and boxed in <code>getValueAt(..)</code>, so the rows of the
+ * file need not fit into the heap and are available without loading them.
+ * 
+ * Each column is a contiguous region of the file holding one fixed width
+ * value per row: <code>int</code>, <code>long</code> or
+ * <code>double</code> values or the <code>int</code> codes of a dictionary
+ * encoded <code>String</code> column. The code -1 stands for
+ * <code>null</code>, the other codes index the dictionary given when the
+ * column is added. The layout of the file is described by adding the
+ * columns with their offsets.
+ * 
+ * The model provides primitive sort keys for all its columns, so a
+ * <code>RowSortingTableModel</code> sorts it by radix sort without boxing
+ * or comparing values. Values are ordered naturally with <code>null</code>
+ * less than everything else.
+ * 
+ * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class MappedTableModel extends AbstractTableModel implements
+		PrimitiveKeyTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Code of the rows holding <code>null</code> in dictionary columns */
+	public static final int NULL_CODE = -1;
+
+	/** Binary logarithm of the number of rows mapped by one buffer */
+	private static final int CHUNK_SHIFT = 24;
+
+	/** The number of rows mapped by one buffer */
+	private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+
+	/** Type of columns holding <code>int</code> values */
+	private static final int INT = 0;
+
+	/** Type of columns holding <code>long</code> values */
+	private static final int LONG = 1;
+
+	/** Type of columns holding <code>double</code> values */
+	private static final int DOUBLE = 2;
+
+	/** Type of columns holding the <code>int</code> codes of strings */
+	private static final int DICTIONARY = 3;
+
+	/** Binary logarithm of the width in bytes of each type */
+	private static final int[] WIDTH_SHIFT = { 2, 3, 3, 2 };
+
+	/** The class of the values of each type */
+	private static final Class<?>[] TYPE_CLASS = { Integer.class, Long.class,
+			Double.class, String.class };
+
+	/** The channel of the file the columns are mapped from */
+	private final FileChannel channel;
+
+	/** The byte order of the values in the file */
+	private final ByteOrder byteOrder;
+
+	/** The number of rows */
+	private final int rowCount;
+
+	/** The columns added so far */
+	private final List<MappedColumn> columns = new ArrayList<MappedColumn>();
+
+	/**
+	 * Creates a new instance of MappedTableModel for a file holding its
+	 * values in big endian byte order like <code>DataOutputStream</code>
+	 * writes them. The model has no columns until they are added.
+	 * 
+	 * @param file
+	 *            the file holding the columns
+	 * @param rowCount
+	 *            the number of rows of each column
+	 * @throws IOException
+	 *             if the file can not be opened
+	 */
+	public MappedTableModel(File file, int rowCount) throws IOException {
+		this(file, rowCount, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Creates a new instance of MappedTableModel. The model has no columns
+	 * until they are added.
+	 * 
+	 * @param file
+	 *            the file holding the columns
+	 * @param rowCount
+	 *            the number of rows of each column
+	 * @param byteOrder
+	 *            the byte order of the values in the file
+	 * @throws IOException
+	 *             if the file can not be opened
+	 */
+	public MappedTableModel(File file, int rowCount, ByteOrder byteOrder)
+			throws IOException {
+		if (rowCount < 0)
+			throw new IllegalArgumentException("Illegal row count "
+					+ rowCount);
+		this.channel = new RandomAccessFile(file, "r").getChannel();
+		this.byteOrder = byteOrder;
+		this.rowCount = rowCount;
+	}
+
+	/**
+	 * Add a column of <code>int</code> values stored from the given offset
+	 * of the file on. Also notifies listeners of the changed structure.
+	 * 
+	 * @param name
+	 *            the name of the column
+	 * @param offset
+	 *            the position of the value of the first row in the file
+	 * @throws IOException
+	 *             if the column can not be mapped
+	 */
+	public void addIntColumn(String name, long offset) throws IOException {
+		addColumn(new MappedColumn(name, INT, map(offset, INT), null));
+	}
+
+	/**
+	 * Add a column of <code>long</code> values stored from the given offset
+	 * of the file on. Also notifies listeners of the changed structure.
+	 * 
+	 * @param name
+	 *            the name of the column
+	 * @param offset
+	 *            the position of the value of the first row in the file
+	 * @throws IOException
+	 *             if the column can not be mapped
+	 */
+	public void addLongColumn(String name, long offset) throws IOException {
+		addColumn(new MappedColumn(name, LONG, map(offset, LONG), null));
+	}
+
+	/**
+	 * Add a column of <code>double</code> values stored from the given
+	 * offset of the file on. Also notifies listeners of the changed
+	 * structure.
+	 * 
+	 * @param name
+	 *            the name of the column
+	 * @param offset
+	 *            the position of the value of the first row in the file
+	 * @throws IOException
+	 *             if the column can not be mapped
+	 */
+	public void addDoubleColumn(String name, long offset) throws IOException {
+		addColumn(new MappedColumn(name, DOUBLE, map(offset, DOUBLE), null));
+	}
+
+	/**
+	 * Add a dictionary encoded column of <code>String</code> values whose
+	 * <code>int</code> codes are stored from the given offset of the file
+	 * on. Also notifies listeners of the changed structure.
+	 * 
+	 * @param name
+	 *            the name of the column
+	 * @param offset
+	 *            the position of the code of the first row in the file
+	 * @param dictionary
+	 *            the value of each code, must not contain <code>null</code>
+	 * @throws IOException
+	 *             if the column can not be mapped
+	 */
+	public void addDictionaryColumn(String name, long offset,
+			String[] dictionary) throws IOException {
+		for (int i = 0; i < dictionary.length; i++) {
+			if (dictionary[i] == null)
+				throw new IllegalArgumentException("Dictionary entry " + i
+						+ " of column " + name + " is null");
+		}
+		addColumn(new MappedColumn(name, DICTIONARY, map(offset, DICTIONARY),
+				dictionary.clone()));
+	}
+
+	/**
+	 * Close the file. The columns added before stay readable.
+	 * 
+	 * @throws IOException
+	 *             if the file can not be closed
+	 */
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Add the given column and notify listeners.
+	 * 
+	 * @param column
+	 *            the column to add
+	 */
+	private void addColumn(MappedColumn column) {
+		columns.add(column);
+		fireTableStructureChanged();
+	}
+
+	/**
+	 * Map the values of a column of the given type. Each buffer maps
+	 * <code>CHUNK_ROWS</code> rows, so columns may be larger than a single
+	 * buffer can be.
+	 * 
+	 * @param offset
+	 *            the position of the value of the first row in the file
+	 * @param type
+	 *            the type of the column
+	 * @return the buffers holding the values
+	 * @throws IOException
+	 *             if the column can not be mapped
+	 */
+	private ByteBuffer[] map(long offset, int type) throws IOException {
+		int shift = WIDTH_SHIFT[type];
+		if (offset < 0 || offset + ((long) rowCount << shift) > channel.size())
+			throw new IllegalArgumentException("Column at " + offset
+					+ " exceeds the file");
+		int count = (rowCount + CHUNK_ROWS - 1) >>> CHUNK_SHIFT;
+		ByteBuffer[] chunks = new ByteBuffer[count];
+		for (int i = 0; i < chunks.length; i++) {
+			int rows = Math.min(CHUNK_ROWS, rowCount - (i << CHUNK_SHIFT));
+			chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+					offset + ((long) i << (CHUNK_SHIFT + shift)),
+					(long) rows << shift).order(byteOrder);
+		}
+		return chunks;
+	}
+
+	/**
+	 * Implements <code>getRowCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Implements <code>getColumnCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getColumnCount() {
+		return columns.size();
+	}
+
+	/**
+	 * Implements <code>getColumnName(col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public String getColumnName(int columnIndex) {
+		return columns.get(columnIndex).name;
+	}
+
+	/**
+	 * Implements <code>getColumnClass(col)</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public Class<?> getColumnClass(int columnIndex) {
+		return TYPE_CLASS[columns.get(columnIndex).type];
+	}
+
+	/**
+	 * Implements <code>getValueAt(row,col)</code> in the interface
+	 * <code>TableModel</code>. Reads the value from the mapped file. May be
+	 * called by several threads at once.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		checkRow(rowIndex);
+		return columns.get(columnIndex).getValue(rowIndex);
+	}
+
+	/**
+	 * Implements <code>getComparator(columnIndex)</code> in the interface
+	 * <code>ComparatorTableModel</code>. All columns are ordered naturally
+	 * with <code>null</code> less than everything else.
+	 * 
+	 * @see de.tkuhn.swing.table.ComparatorTableModel
+	 */
+	public Comparator<?> getComparator(int columnIndex) {
+		return DataColumn.NATURAL_ORDER;
+	}
+
+	/**
+	 * Implements <code>isSortKeyExtractable(columnIndex)</code> in the
+	 * interface <code>SortKeyTableModel</code>. Values are not extracted,
+	 * as boxing all of them is what this model avoids.
+	 * 
+	 * @see de.tkuhn.swing.table.SortKeyTableModel
+	 */
+	public boolean isSortKeyExtractable(int columnIndex) {
+		return false;
+	}
+
+	/**
+	 * Implements <code>isPrimitiveKeyAvailable(columnIndex)</code> in the
+	 * interface <code>PrimitiveKeyTableModel</code>. All columns provide
+	 * primitive keys.
+	 * 
+	 * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+	 */
+	public boolean isPrimitiveKeyAvailable(int columnIndex) {
+		return true;
+	}
+
+	/**
+	 * Implements <code>getPrimitiveKey(rowIndex, columnIndex)</code> in the
+	 * interface <code>PrimitiveKeyTableModel</code>. The key is computed
+	 * from the stored value without boxing it.
+	 * 
+	 * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+	 */
+	public long getPrimitiveKey(int rowIndex, int columnIndex) {
+		checkRow(rowIndex);
+		return columns.get(columnIndex).getKey(rowIndex);
+	}
+
+	/**
+	 * Check if the given row is a row of this model.
+	 * 
+	 * @param row
+	 *            the row to check
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= rowCount)
+			throw new IndexOutOfBoundsException("Row " + row
+					+ " out of range [0, " + rowCount + ")");
+	}
+
+	/**
+	 * A column of the file mapped into buffers of <code>CHUNK_ROWS</code>
+	 * rows each.
+	 */
+	private static class MappedColumn {
+
+		/** The name of the column */
+		final String name;
+
+		/** The type of the values */
+		final int type;
+
+		/** The buffers holding the values */
+		private final ByteBuffer[] chunks;
+
+		/** The binary logarithm of the width of a value */
+		private final int shift;
+
+		/** The value of each code of a dictionary column or null */
+		private final String[] dictionary;
+
+		/**
+		 * The position of each code in the sorted dictionary counted from 1,
+		 * equal values share their position. Null if not a dictionary
+		 * column.
+		 */
+		private final int[] ranks;
+
+		/**
+		 * Creates a new instance of MappedColumn.
+		 * 
+		 * @param name
+		 *            the name of the column
+		 * @param type
+		 *            the type of the values
+		 * @param chunks
+		 *            the buffers holding the values
+		 * @param dictionary
+		 *            the value of each code or null if not a dictionary
+		 *            column
+		 */
+		MappedColumn(String name, int type, ByteBuffer[] chunks,
+				String[] dictionary) {
+			this.name = name;
+			this.type = type;
+			this.chunks = chunks;
+			this.shift = WIDTH_SHIFT[type];
+			this.dictionary = dictionary;
+			this.ranks = (dictionary == null) ? null : DictionaryColumn
+					.computeRanks(dictionary, dictionary.length);
+		}
+
+		/**
+		 * Read the value of the given row.
+		 * 
+		 * @param row
+		 *            the row to read
+		 * @return the value of the row
+		 */
+		Object getValue(int row) {
+			ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+			int index = (row & (CHUNK_ROWS - 1)) << shift;
+			switch (type) {
+			case INT:
+				return Integer.valueOf(chunk.getInt(index));
+			case LONG:
+				return Long.valueOf(chunk.getLong(index));
+			case DOUBLE:
+				return Double.valueOf(chunk.getDouble(index));
+			default:
+				int code = chunk.getInt(index);
+				return (code == NULL_CODE) ? null : dictionary[code];
+			}
+		}
+
+		/**
+		 * Compute the unsigned sort key of the value of the given row.
+		 * 
+		 * @param row
+		 *            the row to read
+		 * @return the key of the value of the row
+		 */
+		long getKey(int row) {
+			ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+			int index = (row & (CHUNK_ROWS - 1)) << shift;
+			switch (type) {
+			case INT:
+				return RadixSort.toSortableKey((long) chunk.getInt(index));
+			case LONG:
+				return RadixSort.toSortableKey(chunk.getLong(index));
+			case DOUBLE:
+				return RadixSort.toSortableKey(chunk.getDouble(index));
+			default:
+				int code = chunk.getInt(index);
+				return (code == NULL_CODE) ? 0 : ranks[code];
+			}
+		}
+	}
+
+}
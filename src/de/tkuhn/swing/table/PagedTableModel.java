@@ -0,0 +1,474 @@
+/*
+ * PagedTableModel.java
+ *
+ * Created on 17. Oktober 2026, 16:20
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A read only <code>TableModel</code> whose rows are fetched on demand in
+ * blocks of fixed size from a <code>RowSource</code>. Only the most
+ * recently used blocks are kept, so the rows of the source need not fit
+ * into memory. When a block is fetched its neighbours are prefetched in the
+ * background, so scrolling through the table rarely waits for the source.
+ * 
+ * If a <code>RowSortingTableModel</code> decorates this model and the
+ * source can order its rows by all sort columns, the sort is delegated to
+ * the source. The rows are then numbered in the order of the sort columns
+ * and no values have to be fetched for sorting. Since this renumbers the
+ * rows for all listeners, only one <code>RowSortingTableModel</code> or
+ * <code>PermutationRowSorter</code> may sort this model at a time.
+ * 
+ * @see de.tkuhn.swing.table.RowSource
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class PagedTableModel extends AbstractTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The number of rows of a block if none is given */
+	public static final int DEFAULT_BLOCK_SIZE = 256;
+
+	/** The source of the rows */
+	private final RowSource source;
+
+	/** The number of rows fetched at once */
+	private final int blockSize;
+
+	/** The number of rows of the source */
+	private int rowCount;
+
+	/** The maximum number of blocks kept in <code>blocks</code> */
+	private int blockCacheSize = 64;
+
+	/** The number of blocks prefetched before and after a fetched block */
+	private int prefetchBlockCount = 2;
+
+	/** The fetched blocks by their number */
+	private final BlockCache blocks = new BlockCache();
+
+	/** The numbers of the blocks being prefetched */
+	private final Set<Integer> prefetching = new HashSet<Integer>();
+
+	/** Counts the changes of the rows making pending prefetches stale */
+	private int generation = 0;
+
+	/** The columns the source is ordered by */
+	private int[] sortColumns = new int[0];
+
+	/** The orders of the <code>sortColumns</code> */
+	private boolean[] sortOrders = new boolean[0];
+
+	/** Runs the prefetching, created when first needed */
+	private Executor prefetchExecutor = null;
+
+	/**
+	 * Creates a new instance of PagedTableModel fetching blocks of
+	 * <code>DEFAULT_BLOCK_SIZE</code> rows.
+	 * 
+	 * @param source
+	 *            the source of the rows
+	 */
+	public PagedTableModel(RowSource source) {
+		this(source, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates a new instance of PagedTableModel.
+	 * 
+	 * @param source
+	 *            the source of the rows
+	 * @param blockSize
+	 *            the number of rows fetched at once
+	 */
+	public PagedTableModel(RowSource source, int blockSize) {
+		if (blockSize <= 0)
+			throw new IllegalArgumentException("Illegal block size "
+					+ blockSize);
+		this.source = source;
+		this.blockSize = blockSize;
+		rowCount = source.getRowCount();
+	}
+
+	/**
+	 * Get the source of the rows.
+	 * 
+	 * @return the source of this model
+	 */
+	public RowSource getSource() {
+		return source;
+	}
+
+	/**
+	 * Get the number of rows fetched at once.
+	 * 
+	 * @return the block size
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Drop all fetched rows and read the number of rows from the source
+	 * again. Must be called after the rows of the source have changed.
+	 * Notifies listeners of the changed data.
+	 */
+	public void refresh() {
+		dropBlocks();
+		rowCount = source.getRowCount();
+		fireTableDataChanged();
+	}
+
+	/** Drop all fetched blocks and ignore the pending prefetches */
+	private void dropBlocks() {
+		blocks.clear();
+		prefetching.clear();
+		generation++;
+	}
+
+	/**
+	 * Implements <code>getRowCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Implements <code>getColumnCount()</code> in the interface
+	 * <code>TableModel</code>.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public int getColumnCount() {
+		return source.getColumnCount();
+	}
+
+	/**
+	 * Overrides <code>getColumnName(columnIndex)</code> in
+	 * <code>AbstractTableModel</code>.
+	 * 
+	 * @see javax.swing.table.AbstractTableModel
+	 */
+	public String getColumnName(int columnIndex) {
+		return source.getColumnName(columnIndex);
+	}
+
+	/**
+	 * Overrides <code>getColumnClass(columnIndex)</code> in
+	 * <code>AbstractTableModel</code>.
+	 * 
+	 * @see javax.swing.table.AbstractTableModel
+	 */
+	public Class<?> getColumnClass(int columnIndex) {
+		return source.getColumnClass(columnIndex);
+	}
+
+	/**
+	 * Implements <code>getValueAt(rowIndex, columnIndex)</code> in the
+	 * interface <code>TableModel</code>. Fetches the block of the row if it
+	 * is not present.
+	 * 
+	 * @see javax.swing.table.TableModel
+	 */
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		if (rowIndex < 0 || rowIndex >= rowCount)
+			throw new ArrayIndexOutOfBoundsException(rowIndex);
+		int block = rowIndex / blockSize;
+		return getBlock(block)[rowIndex - block * blockSize][columnIndex];
+	}
+
+	/**
+	 * Get the rows of a block fetching them from the source if they are not
+	 * present. The neighbouring blocks are prefetched then.
+	 * 
+	 * @param block
+	 *            the number of the block
+	 * @return the rows of the block
+	 */
+	private Object[][] getBlock(int block) {
+		Object[][] rows = blocks.get(Integer.valueOf(block));
+		if (rows == null) {
+			int first = block * blockSize;
+			rows = source.fetchRows(first, Math.min(blockSize, rowCount
+					- first));
+			blocks.put(Integer.valueOf(block), rows);
+			prefetchBlocks(block - prefetchBlockCount, block
+					+ prefetchBlockCount);
+		}
+		return rows;
+	}
+
+	/**
+	 * Fetch the blocks holding the given rows and their neighbours in the
+	 * background unless they are present. Can be called with the rows
+	 * visible in a table, so they are present when they are painted.
+	 * 
+	 * @param first
+	 *            the first row to prefetch
+	 * @param last
+	 *            the last row to prefetch
+	 */
+	public void prefetch(int first, int last) {
+		prefetchBlocks(first / blockSize - prefetchBlockCount, last
+				/ blockSize + prefetchBlockCount);
+	}
+
+	/**
+	 * Fetch the blocks <code>first</code> to <code>last</code> in the
+	 * background unless they are present or being fetched. Blocks exceeding
+	 * the rows are left out, at most <code>blockCacheSize</code> blocks are
+	 * fetched.
+	 * 
+	 * @param first
+	 *            the number of the first block to prefetch
+	 * @param last
+	 *            the number of the last block to prefetch
+	 */
+	private void prefetchBlocks(int first, int last) {
+		if (prefetchBlockCount <= 0)
+			return;
+		first = Math.max(0, first);
+		last = Math.min(Math.min(last, (rowCount - 1) / blockSize), first
+				+ blockCacheSize - 1);
+		for (int block = first; block <= last; block++) {
+			Integer key = Integer.valueOf(block);
+			if (!blocks.containsKey(key) && prefetching.add(key))
+				getPrefetchExecutor().execute(new Prefetch(block));
+		}
+	}
+
+	/**
+	 * Tells if a column is sorted by the source if a
+	 * <code>RowSortingTableModel</code> sorts by it.
+	 * 
+	 * @param column
+	 *            the column in question
+	 * @return true if the source can order its rows by the column
+	 */
+	public boolean isSortable(int column) {
+		return source.isSortable(column);
+	}
+
+	/**
+	 * Have the source order the rows by the given columns. The fetched rows
+	 * are dropped and listeners are notified that all rows have changed.
+	 * The <code>RowSortingTableModel</code> delegating its sort ignores that
+	 * event.
+	 * 
+	 * @param columns
+	 *            the sortable columns to order by, an empty array for the
+	 *            natural order of the source
+	 * @param orders
+	 *            the order for each column
+	 * @return true if the order of the rows may have changed
+	 */
+	boolean reorderRows(int[] columns, boolean[] orders) {
+		if (Arrays.equals(columns, sortColumns)
+				&& Arrays.equals(orders, sortOrders))
+			return false;
+		source.sort(columns, orders);
+		sortColumns = columns.clone();
+		sortOrders = orders.clone();
+		dropBlocks();
+		rowCount = source.getRowCount();
+		fireTableDataChanged();
+		return true;
+	}
+
+	/**
+	 * Get the maximum number of blocks kept in memory.
+	 * 
+	 * @return Value of property blockCacheSize.
+	 */
+	public int getBlockCacheSize() {
+		return blockCacheSize;
+	}
+
+	/**
+	 * Set the maximum number of blocks kept in memory. The least recently
+	 * used blocks are dropped first. Should allow to hold several screens of
+	 * rows.
+	 * 
+	 * @param blockCacheSize
+	 *            New value of property blockCacheSize, at least 1
+	 */
+	public void setBlockCacheSize(int blockCacheSize) {
+		this.blockCacheSize = Math.max(1, blockCacheSize);
+		while (blocks.size() > this.blockCacheSize)
+			blocks.remove(blocks.keySet().iterator().next());
+	}
+
+	/**
+	 * Get the number of blocks prefetched before and after a fetched block.
+	 * 
+	 * @return Value of property prefetchBlockCount.
+	 */
+	public int getPrefetchBlockCount() {
+		return prefetchBlockCount;
+	}
+
+	/**
+	 * Set the number of blocks prefetched before and after a fetched block.
+	 * 
+	 * @param prefetchBlockCount
+	 *            New value of property prefetchBlockCount, 0 disables
+	 *            prefetching
+	 */
+	public void setPrefetchBlockCount(int prefetchBlockCount) {
+		this.prefetchBlockCount = prefetchBlockCount;
+	}
+
+	/**
+	 * Get the <code>Executor</code> fetching blocks in the background. If
+	 * none has been set a single daemon thread is used.
+	 * 
+	 * @return the executor used for prefetching
+	 */
+	public Executor getPrefetchExecutor() {
+		if (prefetchExecutor == null) {
+			prefetchExecutor = Executors
+					.newSingleThreadExecutor(new ThreadFactory() {
+
+						/**
+						 * Implementation of <code>newThread(runnable)</code>
+						 * in the interface
+						 * <code>java.util.concurrent.ThreadFactory</code>.
+						 * 
+						 * @param r
+						 *            the runnable to be run by the thread
+						 * @return a new daemon thread
+						 */
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r,
+									"PagedTableModel prefetcher");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+		return prefetchExecutor;
+	}
+
+	/**
+	 * Set the <code>Executor</code> fetching blocks in the background.
+	 * 
+	 * @param prefetchExecutor
+	 *            the executor to use or <code>null</code> for a default one
+	 */
+	public void setPrefetchExecutor(Executor prefetchExecutor) {
+		this.prefetchExecutor = prefetchExecutor;
+	}
+
+	/**
+	 * Fetches a block in the background and puts it into the cache on the
+	 * event dispatch thread unless the rows have changed meanwhile.
+	 */
+	private class Prefetch implements Runnable {
+
+		/** The number of the block to fetch */
+		private final int block;
+
+		/** The number of rows of the block */
+		private final int count;
+
+		/** The <code>generation</code> the block was requested in */
+		private final int requested = generation;
+
+		Prefetch(int block) {
+			this.block = block;
+			count = Math.min(blockSize, rowCount - block * blockSize);
+		}
+
+		/**
+		 * Implementation of <code>run()</code> in the interface
+		 * <code>java.lang.Runnable</code>.
+		 */
+		public void run() {
+			final Object[][] rows = source.fetchRows(block * blockSize, count);
+			SwingUtilities.invokeLater(new Runnable() {
+
+				/**
+				 * Implementation of <code>run()</code> in the interface
+				 * <code>java.lang.Runnable</code>.
+				 */
+				public void run() {
+					if (requested != generation)
+						return;
+					Integer key = Integer.valueOf(block);
+					prefetching.remove(key);
+					if (!blocks.containsKey(key))
+						blocks.put(key, rows);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Holds at most <code>blockCacheSize</code> blocks dropping the least
+	 * recently used one first.
+	 */
+	private class BlockCache extends LinkedHashMap<Integer, Object[][]> {
+
+		private static final long serialVersionUID = 1L;
+
+		BlockCache() {
+			super(16, 0.75f, true);
+		}
+
+		/**
+		 * Overrides <code>removeEldestEntry(eldest)</code> in
+		 * <code>LinkedHashMap</code>.
+		 * 
+		 * @param eldest
+		 *            the least recently used entry
+		 * @return true if there are more entries than allowed
+		 */
+		protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+			return size() > blockCacheSize;
+		}
+	}
+
+}
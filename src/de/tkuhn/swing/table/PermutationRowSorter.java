@@ -0,0 +1,431 @@
+/*
+ * PermutationRowSorter.java
+ *
+ * Created on 17. Oktober 2026, 14:31
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.event.InputEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+
+/**
+ * A <code>RowSorter</code> that uses the row order of a
+ * <code>RowSortingTableModel</code>. Contrary to installing a
+ * <code>RowSortingTableModel</code> as the model of a <code>JTable</code>
+ * the table keeps its original model. So selection, row index conversion and
+ * drag and drop work in the coordinates the table expects. Both conversions
+ * between model and view row numbers are done in constant time.
+ *
+ * The <code>RowSortingTableModel</code> used does not listen to the model
+ * itself but is notified by the table through this sorter. Changes of the
+ * sort order should be done using the methods of this sorter, so that
+ * listeners are informed about the previous order. If the
+ * <code>RowSortingTableModel</code> sorts asynchronously the new order is
+ * reported when the background sort has finished.
+ *
+ * @see de.tkuhn.swing.table.RowSortingTableModel
+ * @see javax.swing.RowSorter
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class PermutationRowSorter extends RowSorter<TableModel> {
+
+	/** The RowSortingTableModel holding the row order */
+	private final RowSortingTableModel sortingModel = new RowSortingTableModel();
+
+	/** The order change count of the sorting model listeners know about */
+	private int orderChanges = 0;
+
+	/** True while this sorter is changing the sorting model */
+	private boolean adjusting = false;
+
+	/**
+	 * The order of the rows listeners know about while the rows are sorted
+	 * in the background or <code>null</code>
+	 */
+	private int[] shownOrder = null;
+
+	/**
+	 * Creates a new instance of PermutationRowSorter sorting the rows of the
+	 * given model.
+	 *
+	 * @param model
+	 *            the model whose rows are sorted
+	 */
+	public PermutationRowSorter(TableModel model) {
+		setModel(model);
+		sortingModel.addTableModelListener(new TableModelListener() {
+
+			/**
+			 * Implementation of <code>tableChanged(event)</code> in the
+			 * interface <code>javax.swing.event.TableModelListener</code>.
+			 * Notifies listeners of orders that have been changed by the
+			 * sorting model itself like finished background sorts.
+			 * 
+			 * @param tme
+			 *            the event to process
+			 */
+			public void tableChanged(TableModelEvent tme) {
+				if (!adjusting)
+					orderChanged(shownOrder);
+			}
+		});
+	}
+
+	/**
+	 * Set a new <code>TableModel</code> whose rows are sorted. This will keep
+	 * the sorting state if the new model is similar to the old one.
+	 *
+	 * @param model
+	 *            the new model
+	 */
+	public void setModel(TableModel model) {
+		if (model == null)
+			throw new IllegalArgumentException("Model must not be null");
+		adjusting = true;
+		try {
+			sortingModel.setModel(model, false);
+		} finally {
+			adjusting = false;
+		}
+		// the table reports the new model to the sorter itself
+		orderChanges = sortingModel.getOrderChangeCount();
+		shownOrder = null;
+	}
+
+	/**
+	 * Get the <code>RowSortingTableModel</code> that holds the row order of
+	 * this sorter.
+	 *
+	 * @return the <code>RowSortingTableModel</code> used
+	 */
+	public RowSortingTableModel getRowSortingTableModel() {
+		return sortingModel;
+	}
+
+	/**
+	 * Creates a Memento of the sorting state of this sorter.
+	 *
+	 * @return a JavaBean representing the sorting state.
+	 * @see RowSortingTableModel#getState
+	 */
+	public Object getState() {
+		return sortingModel.getState();
+	}
+
+	/**
+	 * Resets this sorter to the given state if the column structure is
+	 * similar to the one present while <code>getState()</code> was called.
+	 *
+	 * @param state
+	 *            the state to set
+	 * @return true if the column structure was similar and the state has been
+	 *         reset
+	 * @see RowSortingTableModel#setState
+	 */
+	public boolean setState(Object state) {
+		int[] previous = getViewToModel();
+		boolean ok;
+		adjusting = true;
+		try {
+			ok = sortingModel.setState(state);
+		} finally {
+			adjusting = false;
+		}
+		fireSortOrderChanged();
+		orderChanged(previous);
+		return ok;
+	}
+
+	/**
+	 * Implements <code>getModel()</code> in <code>RowSorter</code>.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public TableModel getModel() {
+		return sortingModel.getModel();
+	}
+
+	/**
+	 * Implements <code>toggleSortOrder(column)</code> in
+	 * <code>RowSorter</code>. Sorts by the given column or reverses the sort
+	 * order if the rows are already sorted by it. If shift is held down
+	 * while the table header is clicked the column is added to the sort
+	 * columns instead.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void toggleSortOrder(int column) {
+		checkColumn(column);
+		int[] previous = getViewToModel();
+		AWTEvent event = EventQueue.getCurrentEvent();
+		adjusting = true;
+		try {
+			if (event instanceof InputEvent
+					&& ((InputEvent) event).isShiftDown())
+				sortingModel.addSortColumn(column);
+			else
+				sortingModel.toggleSortOrder(column);
+		} finally {
+			adjusting = false;
+		}
+		fireSortOrderChanged();
+		orderChanged(previous);
+	}
+
+	/**
+	 * Implements <code>convertRowIndexToModel(index)</code> in
+	 * <code>RowSorter</code> in constant time.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public int convertRowIndexToModel(int index) {
+		return sortingModel.getModelRow(index);
+	}
+
+	/**
+	 * Implements <code>convertRowIndexToView(index)</code> in
+	 * <code>RowSorter</code> in constant time.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public int convertRowIndexToView(int index) {
+		return sortingModel.getViewRow(index);
+	}
+
+	/**
+	 * Implements <code>setSortKeys(keys)</code> in <code>RowSorter</code>.
+	 * Keys with an unsorted order are ignored. An empty list restores the
+	 * order of the model.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void setSortKeys(List<? extends SortKey> keys) {
+		List<SortKey> sorted = new ArrayList<SortKey>();
+		if (keys != null) {
+			for (SortKey key : keys) {
+				if (key.getSortOrder() != SortOrder.UNSORTED) {
+					checkColumn(key.getColumn());
+					sorted.add(key);
+				}
+			}
+		}
+		if (sorted.equals(getSortKeys()))
+			return;
+		int[] columns = new int[sorted.size()];
+		boolean[] orders = new boolean[sorted.size()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = sorted.get(i).getColumn();
+			orders[i] = (sorted.get(i).getSortOrder() == SortOrder.ASCENDING);
+		}
+		int[] previous = getViewToModel();
+		adjusting = true;
+		try {
+			sortingModel.sort(columns, orders);
+		} finally {
+			adjusting = false;
+		}
+		fireSortOrderChanged();
+		orderChanged(previous);
+	}
+
+	/**
+	 * Implements <code>getSortKeys()</code> in <code>RowSorter</code>.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public List<? extends SortKey> getSortKeys() {
+		int[] columns = sortingModel.getSortColumns();
+		List<SortKey> keys = new ArrayList<SortKey>(columns.length);
+		for (int i = 0; i < columns.length; i++) {
+			SortOrder order = sortingModel.getSortOrder(columns[i]) ? SortOrder.ASCENDING
+					: SortOrder.DESCENDING;
+			keys.add(new SortKey(columns[i], order));
+		}
+		return keys;
+	}
+
+	/**
+	 * Implements <code>getViewRowCount()</code> in <code>RowSorter</code>.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public int getViewRowCount() {
+		return sortingModel.getRowCount();
+	}
+
+	/**
+	 * Implements <code>getModelRowCount()</code> in <code>RowSorter</code>.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public int getModelRowCount() {
+		return getModel().getRowCount();
+	}
+
+	/**
+	 * Implements <code>modelStructureChanged()</code> in
+	 * <code>RowSorter</code>. Keeps the sorting state if the new structure is
+	 * similar to the old one.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void modelStructureChanged() {
+		modelChanged(new TableModelEvent(getModel(),
+				TableModelEvent.HEADER_ROW));
+	}
+
+	/**
+	 * Implements <code>allRowsChanged()</code> in <code>RowSorter</code>.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void allRowsChanged() {
+		modelChanged(new TableModelEvent(getModel()));
+	}
+
+	/**
+	 * Implements <code>rowsInserted(firstRow, endRow)</code> in
+	 * <code>RowSorter</code>. The rows are merged into the existing order.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void rowsInserted(int firstRow, int endRow) {
+		modelChanged(new TableModelEvent(getModel(), firstRow, endRow,
+				TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
+	}
+
+	/**
+	 * Implements <code>rowsDeleted(firstRow, endRow)</code> in
+	 * <code>RowSorter</code>.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void rowsDeleted(int firstRow, int endRow) {
+		modelChanged(new TableModelEvent(getModel(), firstRow, endRow,
+				TableModelEvent.ALL_COLUMNS, TableModelEvent.DELETE));
+	}
+
+	/**
+	 * Implements <code>rowsUpdated(firstRow, endRow)</code> in
+	 * <code>RowSorter</code>. Only rows whose position changed are moved.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void rowsUpdated(int firstRow, int endRow) {
+		modelChanged(new TableModelEvent(getModel(), firstRow, endRow));
+	}
+
+	/**
+	 * Implements <code>rowsUpdated(firstRow, endRow, column)</code> in
+	 * <code>RowSorter</code>. Only rows whose position changed are moved.
+	 *
+	 * @see javax.swing.RowSorter
+	 */
+	public void rowsUpdated(int firstRow, int endRow, int column) {
+		checkColumn(column);
+		modelChanged(new TableModelEvent(getModel(), firstRow, endRow, column));
+	}
+
+	/**
+	 * Pass a change of the model to the <code>RowSortingTableModel</code>
+	 * and notify listeners if the order of the rows has changed.
+	 *
+	 * @param tme
+	 *            the change of the model
+	 */
+	private void modelChanged(TableModelEvent tme) {
+		adjusting = true;
+		try {
+			sortingModel.doTableChanged(tme);
+		} finally {
+			adjusting = false;
+		}
+		orderChanged(null);
+	}
+
+	/**
+	 * Notify listeners if the order of the rows has changed since they have
+	 * been notified last time. While the rows are sorted in the background
+	 * the order listeners know about is kept, so they can convert their
+	 * selection when the sort has finished.
+	 * 
+	 * @param previous
+	 *            the previous order of the rows or <code>null</code> if
+	 *            unknown
+	 */
+	private void orderChanged(int[] previous) {
+		boolean changed = (orderChanges != sortingModel.getOrderChangeCount());
+		if (changed) {
+			orderChanges = sortingModel.getOrderChangeCount();
+			fireRowSorterChanged(previous);
+		}
+		if (!sortingModel.isSorting())
+			shownOrder = null;
+		else if (changed || shownOrder == null)
+			shownOrder = getViewToModel();
+	}
+
+	/**
+	 * Copy the current order of rows.
+	 *
+	 * @return the model row number for each view row
+	 */
+	private int[] getViewToModel() {
+		int[] rows = new int[sortingModel.getRowCount()];
+		for (int i = 0; i < rows.length; i++)
+			rows[i] = sortingModel.getModelRow(i);
+		return rows;
+	}
+
+	/**
+	 * Check if the given column exists in the model.
+	 *
+	 * @param column
+	 *            the column to check
+	 * @throws IndexOutOfBoundsException
+	 *             if the column does not exist
+	 */
+	private void checkColumn(int column) {
+		if (column < 0 || column >= getModel().getColumnCount())
+			throw new IndexOutOfBoundsException("Column " + column
+					+ " out of range");
+	}
+
+}
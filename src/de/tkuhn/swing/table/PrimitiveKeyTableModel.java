@@ -0,0 +1,76 @@
+/*
+ * PrimitiveKeyTableModel.java
+ *
+ * Created on 17. Oktober 2026, 18:45
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+/**
+ * This adds methods to <code>SortKeyTableModel</code> that let a model
+ * provide a primitive <code>long</code> sort key for each value of a column.
+ * A <code>RowSortingTableModel</code> radix sorts such columns by their keys
+ * without comparing any values.
+ *
+ * The unsigned order of the keys must be the order the
+ * <code>Comparator</code> of the column defines for the values, or the
+ * order of <code>DefaultComparator</code> if the model does not provide one.
+ * Equal values must have equal keys and different values different keys.
+ *
+ * @see de.tkuhn.swing.table.DictionaryColumn
+ * @see de.tkuhn.swing.table.RowSortingTableModel
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface PrimitiveKeyTableModel extends SortKeyTableModel {
+
+	/**
+	 * Returns if the model provides primitive sort keys for the values of
+	 * the column <code>columnIndex</code>.
+	 *
+	 * @param columnIndex
+	 *            the column number in question
+	 * @return <code>true</code> if <code>getPrimitiveKey(..)</code> may be
+	 *         called for the column
+	 */
+	public boolean isPrimitiveKeyAvailable(int columnIndex);
+
+	/**
+	 * Returns the primitive sort key of the value at <code>rowIndex</code>
+	 * and <code>columnIndex</code>.
+	 *
+	 * @param rowIndex
+	 *            the row whose key is to be queried
+	 * @param columnIndex
+	 *            the column whose key is to be queried
+	 * @return the unsigned sort key of the value
+	 */
+	public long getPrimitiveKey(int rowIndex, int columnIndex);
+
+}
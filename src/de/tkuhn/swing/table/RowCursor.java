@@ -0,0 +1,61 @@
+/*
+ * RowCursor.java
+ *
+ * Created on 17. Oktober 2026, 17:10
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+/**
+ * Delivers the rows of a model one after another in some order, e.g. the
+ * sorted rows a <code>SortableTableModel</code> reads from a database cursor
+ * or from an index file. Each cursor is read once and closed afterwards.
+ *
+ * @see de.tkuhn.swing.table.SortableTableModel
+ * @see de.tkuhn.swing.table.ArrayRowCursor
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface RowCursor {
+
+	/**
+	 * Returns the next row.
+	 *
+	 * @return the number of the next row of the model or -1 if all rows
+	 *         have been delivered
+	 */
+	public int nextRow();
+
+	/**
+	 * Releases the resources held by the cursor. Called when the rows have
+	 * been read or reading them has been stopped.
+	 */
+	public void close();
+
+}
@@ -0,0 +1,59 @@
+/*
+ * RowPredicate.java
+ *
+ * Created on 17. Oktober 2026, 17:25
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import javax.swing.table.TableModel;
+
+/**
+ * Decides which rows of a model are shown by a
+ * <code>RowSortingTableModel</code>. Rows that are not accepted are neither
+ * sorted nor shown.
+ * 
+ * @see de.tkuhn.swing.table.RowSortingTableModel#setRowPredicate
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface RowPredicate {
+
+	/**
+	 * Tells if the given row of the model should be shown.
+	 * 
+	 * @param model
+	 *            the model containing the row
+	 * @param row
+	 *            the row number in the model
+	 * @return true if the row is shown, false if it is filtered out
+	 */
+	public boolean accept(TableModel model, int row);
+
+}
@@ -53,6 +53,9 @@ public class RowSortingState implements Serializable {
 	/** The number of the column of the last sort */
 	private int sortCol;
 
+	/** The numbers of all columns of the last sort starting with sortCol */
+	private int[] sortCols;
+
 	/**
 	 * Getter for property colOrder.
 	 * 
@@ -91,6 +94,26 @@ public class RowSortingState implements Serializable {
 		sortCol = col;
 	}
 
+	/**
+	 * Getter for property sortCols. May be <code>null</code> for states
+	 * saved by older versions.
+	 * 
+	 * @return Value of property sortCols.
+	 */
+	public int[] getSortCols() {
+		return sortCols;
+	}
+
+	/**
+	 * Setter for property sortCols.
+	 * 
+	 * @param cols
+	 *            New value of property sortCols.
+	 */
+	public void setSortCols(int[] cols) {
+		sortCols = cols;
+	}
+
 	/**
 	 * Getter for property colNames.
 	 * 
@@ -31,13 +31,30 @@
 
 package de.tkuhn.swing.table;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.AbstractTableModel;
@@ -45,8 +62,12 @@ import javax.swing.table.JTableHeader;
 import javax.swing.table.TableColumnModel;
 import javax.swing.table.TableModel;
 
+import de.tkuhn.util.AbbreviatedKeys;
 import de.tkuhn.util.DefaultComparator;
+import de.tkuhn.util.IntComparator;
+import de.tkuhn.util.IntSort;
 import de.tkuhn.util.OrderComparator;
+import de.tkuhn.util.RadixSort;
 
 /**
  * This Class is a decorator wrapper for <code>TableColumnModel</code>s that
@@ -54,6 +75,18 @@ import de.tkuhn.util.OrderComparator;
  * a column in ascending or descending order. In addition it provides a means
  * for storing and resetting the state of the sort order.
  * 
+ * Clicking a column header while holding shift adds the column to the sort
+ * columns. Its values then order rows with equal values in the previous sort
+ * columns.
+ * 
+ * In asynchronous mode full sorts are done by a background thread on a
+ * snapshot of the sort columns. The rows are shown in their previous order
+ * until the sort has finished. <code>SortProgressListener</code>s are
+ * informed about the progress of background sorts, which can be cancelled.
+ * 
+ * A <code>RowPredicate</code> may be set to show only some of the rows. The
+ * rows are filtered in the same pass that builds the sorted rows.
+ * 
  * If you use <code>JUserFriendlyTable</code> you should not need to use this
  * class.
  * 
@@ -72,13 +105,158 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	public static final boolean ASCENDING = OrderComparator.ASCENDING;
 	/** Value for sort() in which order data should be sorted */
 	public static final boolean DESCENDING = OrderComparator.DESCENDING;
+	/** Value for setRowPredicate() if the new predicate may accept any rows */
+	public static final int FILTER_CHANGED = 0;
+	/**
+	 * Value for setRowPredicate() if the new predicate accepts only rows the
+	 * previous one accepted
+	 */
+	public static final int FILTER_NARROWED = 1;
+	/**
+	 * Value for setRowPredicate() if the new predicate accepts all rows the
+	 * previous one accepted
+	 */
+	public static final int FILTER_WIDENED = 2;
+
+	/**
+	 * Updates of more than this fraction of the rows are handled by resorting
+	 * all rows
+	 */
+	private static final int MAX_UPDATE_FRACTION = 8;
+
+	/**
+	 * Changes of rows falling into more than this number of ranges of sorted
+	 * rows are reported to listeners as a single event
+	 */
+	private static final int MAX_TRANSLATED_RUNS = 32;
+
+	/**
+	 * Updates of more than this number of rows in a column that does not
+	 * affect the order are reported to listeners as update of all rows
+	 */
+	private static final int MAX_TRANSLATED_ROWS = 4096;
+
+	/** Number of comparisons between progress reports of background sorts */
+	private static final int PROGRESS_INTERVAL = 1 << 16;
+
+	/** Minimum number of rows sorted by one thread in parallel sorting */
+	private static final int MIN_PARALLEL_GRANULARITY = 8192;
+
+	/** Column classes whose values can be sorted by primitive keys */
+	private static final Class<?>[] PRIMITIVE_KEY_CLASSES = { Integer.class,
+			Long.class, Short.class, Byte.class, Double.class, Float.class,
+			Date.class, Boolean.class };
 
 	/** The decorated <code>TableModel</code> */
 	private TableModel model = null;
 
-	/** Holds the row numbers of the original model in sorted order */
+	/**
+	 * Holds the row numbers of the original model in sorted order. The array
+	 * may be longer than the number of rows to leave room for inserts.
+	 */
 	private int[] sortedRow = null;
 
+	/**
+	 * The number of valid entries in <code>sortedRow</code>, that is the
+	 * number of rows accepted by <code>rowPredicate</code>
+	 */
+	private int rowCount = 0;
+
+	/** The number of rows of the original model including filtered ones */
+	private int modelRowCount = 0;
+
+	/**
+	 * Holds the sorted row number for each row number of the original model
+	 * or -1 for rows not accepted by <code>rowPredicate</code>
+	 */
+	private int[] viewRow = null;
+
+	/** Decides which rows are shown or null if all rows are shown */
+	private RowPredicate rowPredicate = null;
+
+	/** Counts the changes of the order of the existing rows */
+	private int orderChangeCount = 0;
+
+	/** Work array for merging, kept between sorts to avoid reallocation */
+	private int[] sortBuffer = null;
+
+	/**
+	 * Values of <code>sortColumn</code> fetched once for each row while
+	 * sorting or <code>null</code> if values are fetched on every comparison
+	 */
+	private Object[] sortKeys = null;
+
+	/**
+	 * Values of each of the <code>secondaryColumns</code> fetched once for
+	 * each row while sorting. Entries are <code>null</code> if values are
+	 * fetched on every comparison.
+	 */
+	private Object[][] secondaryKeys = null;
+
+	/** Number of rows from which on sorting is done in parallel, 0 if never */
+	private int parallelThreshold = 0;
+
+	/** The pool used for parallel sorting, <code>null</code> if shared */
+	private ForkJoinPool forkJoinPool = null;
+
+	/** The pool shared by all models, created when first needed */
+	private static ForkJoinPool sharedForkJoinPool = null;
+
+	/** True if full sorts are done in the background */
+	private boolean asynchronous = false;
+
+	/** Runs the background sorts, created when first needed */
+	private Executor sortExecutor = null;
+
+	/** The background sort whose result is awaited or null */
+	private SortJob pendingSort = null;
+
+	/**
+	 * The state whose sort columns the shown rows are ordered by. Null if the
+	 * rows are in the order of the model or in no known order.
+	 */
+	private RowSortingState shownState = null;
+
+	/** The maximum number of row orders kept in <code>orderCache</code> */
+	private int permutationCacheSize = 4;
+
+	/** The number of leading rows ordered before a background sort or 0 */
+	private int previewRowCount = 0;
+
+	/**
+	 * Milliseconds events of the model are collected before they are
+	 * processed together, 0 for once per pass of the event dispatch thread or
+	 * -1 if each event is processed at once
+	 */
+	private int coalescingDelay = -1;
+
+	/** The events of the model collected so far or null if there are none */
+	private CoalescedEvents coalescedEvents = null;
+
+	/** Processes the collected events after the coalescing delay */
+	private Timer coalescingTimer = null;
+
+	/** Processes the collected events on the event dispatch thread */
+	private Runnable eventProcessor = null;
+
+	/** True while the source of a <code>PagedTableModel</code> sorts */
+	private boolean delegating = false;
+
+	/**
+	 * The sorted rows of recently shown sort orders, created when first
+	 * needed
+	 */
+	private PermutationCache orderCache = null;
+
+	/** The background sort this model is sorting for or null */
+	private SortJob monitor = null;
+
+	/**
+	 * Counts comparisons for progress reports. Sorting threads may lose
+	 * counts, which only delays the next report.
+	 */
+	private int comparisons = 0;
+
 	/** Saves the sort order (ascending or descending) for each column */
 	private boolean[] colOrder = null;
 
@@ -86,18 +264,51 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	// private boolean sortOrder;
 	/** The actual column sorted by */
 	private int sortColumn = NO_COLUMN;
+
+	/**
+	 * The columns ordering rows with equal values in <code>sortColumn</code>
+	 * in the order they are compared
+	 */
+	private int[] secondaryColumns = new int[0];
 	/** The class of the actual sortColum's objects */
 	// private Class sortColClass;
 
 	/** Used to fetch the right sorting values */
-	private Comparator<Integer> sortingComparator = null;
+	private IntComparator sortingComparator = null;
+
+	/** Used to compare rows by the <code>secondaryColumns</code> only */
+	private IntComparator tieComparator = null;
 
 	/** Used to enable sorting order */
 	private OrderComparator<Object> orderComparator = new OrderComparator<Object>();
 
+	/** Used to compare the values of the <code>secondaryColumns</code> */
+	private OrderComparator<Object>[] secondaryComparators =
+			createOrderComparators(0);
+
+	/**
+	 * Tells for <code>sortColumn</code> followed by each of the
+	 * <code>secondaryColumns</code> if rows are compared by the primitive
+	 * keys of the model instead of its values
+	 */
+	private boolean[] primitiveKeyColumns = new boolean[0];
+
 	/** Used for default sorting */
 	private Comparator<?> defaultComparator = new DefaultComparator();
 
+	/** Used to compare <code>CollationKey</code>s instead of strings */
+	private Comparator<Object> collationKeyComparator = new CollationKeyComparator();
+
+	/**
+	 * The <code>CollationKey</code>s of the values of each column indexed by
+	 * row number of the original model. Entries are <code>null</code> if
+	 * not computed yet.
+	 */
+	private CollationKey[][] collationKeys = null;
+
+	/** Copies of the <code>Collator</code>s that computed the keys */
+	private Collator[] collators = null;
+
 	/** Used to catch MouseEvents on the Table */
 	private MouseListener mouseListener = null;
 
@@ -175,15 +386,32 @@ public class RowSortingTableModel extends AbstractTableModel implements
 			 * @see javax.swing.event.TableModelListener
 			 */
 			public void tableChanged(TableModelEvent tme) {
-				doTableChanged(tme);
+				if (delegating)
+					return;
+				if (coalescingDelay >= 0)
+					coalesceEvent(tme);
+				else
+					doTableChanged(tme);
+			}
+		};
+
+		eventProcessor = new Runnable() {
+
+			/**
+			 * Implementation of <code>run()</code> in the interface
+			 * <code>java.lang.Runnable</code> processing the collected events
+			 * of the model.
+			 */
+			public void run() {
+				processCoalescedEvents();
 			}
 		};
 
-		sortingComparator = new Comparator<Integer>() {
+		sortingComparator = new IntComparator() {
 
 			/**
-			 * Implementation of <code>compare(obj,obj)</code> in the interface
-			 * <code>java.util.Comparator</code> used to sort the rows.
+			 * Implementation of <code>compare(int,int)</code> in the interface
+			 * <code>de.tkuhn.util.IntComparator</code> used to sort the rows.
 			 * 
 			 * @param i1
 			 *            row one to be compared
@@ -191,11 +419,37 @@ public class RowSortingTableModel extends AbstractTableModel implements
 			 *            row two to be compared
 			 * @return the result of comparison
 			 */
-			public int compare(Integer i1, Integer i2) {
+			public int compare(int i1, int i2) {
+				countComparison();
 				return doCompare(i1, i2);
 			}
 		};
 
+		tieComparator = new IntComparator() {
+
+			/**
+			 * Implementation of <code>compare(int,int)</code> in the interface
+			 * <code>de.tkuhn.util.IntComparator</code> used to sort rows with
+			 * equal primitive keys in <code>sortColumn</code>.
+			 * 
+			 * @param i1
+			 *            row one to be compared
+			 * @param i2
+			 *            row two to be compared
+			 * @return the result of comparison
+			 */
+			public int compare(int i1, int i2) {
+				countComparison();
+				return compareSecondaryKeys(i1, i2, secondaryColumns.length);
+			}
+		};
+
+	}
+
+	/** Report progress to the <code>monitor</code> after some comparisons */
+	private void countComparison() {
+		if (monitor != null && (++comparisons & (PROGRESS_INTERVAL - 1)) == 0)
+			monitor.compared(PROGRESS_INTERVAL);
 	}
 
 	/** Creates a new instance of RowSortingTableModel */
@@ -228,16 +482,69 @@ public class RowSortingTableModel extends AbstractTableModel implements
 			int viewCol = colModel.getColumnIndexAtX(e.getX());
 			int modelCol = table.convertColumnIndexToModel(viewCol);
 			if (e.getClickCount() == 1 && modelCol != -1) {
-				if (modelCol == sortColumn)
-					colOrder[sortColumn] = !colOrder[sortColumn];
+				if (e.isShiftDown())
+					addSortColumn(modelCol);
 				else
-					sortColumn = modelCol;
-				sort();
-				fireTableDataChanged();
+					toggleSortOrder(modelCol);
 			}
 		}
 	}
 
+	/**
+	 * Sort by the given column. If the rows are already sorted by that column
+	 * the sort order is reversed. Also notifies listeners of changes.
+	 * 
+	 * @param modelCol
+	 *            index of column to sort by
+	 */
+	void toggleSortOrder(int modelCol) {
+		processCoalescedEvents();
+		boolean sorted;
+		if (modelCol == sortColumn) {
+			colOrder[sortColumn] = !colOrder[sortColumn];
+			sorted = reorder(true, 0);
+		} else {
+			rememberOrder();
+			sortColumn = modelCol;
+			secondaryColumns = new int[0];
+			sorted = startSort(true);
+		}
+		if (sorted)
+			fireTableDataChanged();
+	}
+
+	/**
+	 * Add the given column to the columns the rows are sorted by. Only rows
+	 * with equal values in all previous sort columns are sorted again. If
+	 * the rows are already sorted by that column its sort order is reversed.
+	 * Also notifies listeners of changes.
+	 * 
+	 * @param modelCol
+	 *            index of column to add
+	 */
+	void addSortColumn(int modelCol) {
+		processCoalescedEvents();
+		if (sortColumn == NO_COLUMN || modelCol == sortColumn) {
+			toggleSortOrder(modelCol);
+			return;
+		}
+		int level = indexOf(secondaryColumns, modelCol);
+		int validKeys;
+		if (level >= 0) {
+			colOrder[modelCol] = !colOrder[modelCol];
+			validKeys = level + 1;
+		} else {
+			int[] columns = new int[secondaryColumns.length + 1];
+			System.arraycopy(secondaryColumns, 0, columns, 0,
+					secondaryColumns.length);
+			columns[secondaryColumns.length] = modelCol;
+			secondaryColumns = columns;
+			validKeys = columns.length;
+		}
+		if (reorder(false, validKeys))
+			fireTableDataChanged();
+	}
+
 	/**
 	 * Registers this <code>RowSortingTableModel</code> at the given table by
 	 * setting itself as its new model and wrapping the table's old model. Also
@@ -311,7 +618,26 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	 *            the new model to be installed
 	 */
 	public void setModel(TableModel aModel) {
+		setModel(aModel, true);
+	}
+
+	/**
+	 * Set a new <code>TableModel</code> in this decorator and notify all
+	 * <code>TableModelListeners</code>. If <code>listening</code> is false
+	 * this decorator does not register at the model for its events. Instead
+	 * they have to be passed to <code>doTableChanged(event)</code> by the
+	 * caller.
+	 * 
+	 * @param aModel
+	 *            the new model to be installed
+	 * @param listening
+	 *            if this decorator should listen to the model's events
+	 * @see #doTableChanged
+	 */
+	void setModel(TableModel aModel, boolean listening) {
 		if (model != aModel) {
+			discardSort();
+			discardCoalescedEvents();
 			if (model != null)
 				model.removeTableModelListener(tableModelListener);
 			if (aModel != null) {
@@ -321,14 +647,20 @@ public class RowSortingTableModel extends AbstractTableModel implements
 					state = getState();
 				model = aModel;
 				init();
-				model.addTableModelListener(tableModelListener);
+				if (listening)
+					model.addTableModelListener(tableModelListener);
 				if (oldModel != null)
 					internalSetState(state);
 			} else {
 				model = null;
 				sortedRow = null;
+				rowCount = 0;
+				modelRowCount = 0;
+				viewRow = null;
+				sortBuffer = null;
 				colOrder = null;
 				sortColumn = NO_COLUMN;
+				secondaryColumns = new int[0];
 			}
 			fireTableStructureChanged();
 		}
@@ -336,15 +668,77 @@ public class RowSortingTableModel extends AbstractTableModel implements
 
 	/** Initialize the members of this object after a model change */
 	private void init() {
+		clearOrders();
+		collationKeys = null;
+		collators = null;
 		initRows();
 		initCols();
 	}
 
-	/** Initializes row data */
+	/**
+	 * Initializes row data. Only the rows accepted by
+	 * <code>rowPredicate</code> are taken, in the order of the model.
+	 */
 	private void initRows() {
-		sortedRow = new int[model.getRowCount()];
-		for (int i = model.getRowCount() - 1; i >= 0; i--)
-			sortedRow[i] = i;
+		shownState = null;
+		modelRowCount = model.getRowCount();
+		if (sortedRow == null || sortedRow.length < modelRowCount)
+			sortedRow = new int[modelRowCount];
+		if (rowPredicate == null) {
+			rowCount = modelRowCount;
+			for (int i = rowCount - 1; i >= 0; i--)
+				sortedRow[i] = i;
+		} else {
+			rowCount = 0;
+			for (int i = 0; i < modelRowCount; i++) {
+				if (rowPredicate.accept(model, i))
+					sortedRow[rowCount++] = i;
+			}
+		}
+		resetViewRows();
+	}
+
+	/**
+	 * Recompute the inverse index <code>viewRow</code> for the sorted rows
+	 * <code>from</code> to <code>to</code> (exclusive).
+	 * 
+	 * @param from
+	 *            the first sorted row to update
+	 * @param to
+	 *            the end of the sorted rows to update
+	 */
+	private void updateViewRows(int from, int to) {
+		if (viewRow == null || viewRow.length < modelRowCount)
+			viewRow = new int[sortedRow.length];
+		for (int i = from; i < to; i++)
+			viewRow[sortedRow[i]] = i;
+	}
+
+	/**
+	 * Recompute the inverse index <code>viewRow</code> for all rows of the
+	 * model marking filtered rows with -1.
+	 */
+	private void resetViewRows() {
+		if (viewRow == null || viewRow.length < modelRowCount)
+			viewRow = new int[sortedRow.length];
+		if (rowCount < modelRowCount)
+			Arrays.fill(viewRow, 0, modelRowCount, -1);
+		updateViewRows(0, rowCount);
+	}
+
+	/**
+	 * Make sure <code>sortedRow</code> can hold the given number of rows
+	 * keeping its contents.
+	 * 
+	 * @param capacity
+	 *            the number of rows needed
+	 */
+	private void ensureRowCapacity(int capacity) {
+		if (sortedRow.length < capacity) {
+			int[] rows = new int[Math.max(capacity, sortedRow.length * 3 / 2)];
+			System.arraycopy(sortedRow, 0, rows, 0, rowCount);
+			sortedRow = rows;
+		}
 	}
 
 	/** Initialize column data */
@@ -354,6 +748,12 @@ public class RowSortingTableModel extends AbstractTableModel implements
 			sortColumn = NO_COLUMN;
 		else
 			Arrays.fill(colOrder, true);
+		if (sortColumn >= colOrder.length)
+			sortColumn = NO_COLUMN;
+		if (sortColumn == NO_COLUMN)
+			secondaryColumns = new int[0];
+		else
+			secondaryColumns = validColumns(secondaryColumns);
 	}
 
 	/**
@@ -365,157 +765,2257 @@ public class RowSortingTableModel extends AbstractTableModel implements
 		return model;
 	}
 
-	/** Resort the rows by values of <code>sortColumn</code> */
+	/**
+	 * Resort the rows by values of <code>sortColumn</code>. If the order is
+	 * cached the rows are copied from the cache instead.
+	 */
 	private void sort() {
-		if (sortColumn == NO_COLUMN) {
-			initRows();
-		} else {
-			orderComparator.setOrder(colOrder[sortColumn]);
-			Integer[] rows = new Integer[sortedRow.length];
-
-			Comparator<?> comparator = null;
-			if (model instanceof ComparatorTableModel) {
-				comparator = ((ComparatorTableModel) model)
-						.getComparator(sortColumn);
-			}
-			if (comparator == null)
-				comparator = defaultComparator;
-			orderComparator.setComparator((Comparator<Object>) comparator);
-
-			for (int i = sortedRow.length - 1; i >= 0; i--)
-				rows[i] = i;
-
-			Arrays.sort(rows, sortingComparator);
-
-			for (int i = sortedRow.length - 1; i >= 0; i--) {
-				sortedRow[i] = rows[i];
-			}
+		if (model instanceof PagedTableModel)
+			delegateSort();
+		initRows();
+		if (sortColumn != NO_COLUMN && !isSortDelegated()) {
+			int[] cached = getCachedOrder();
+			if (cached != null && cached.length == rowCount)
+				System.arraycopy(cached, 0, sortedRow, 0, rowCount);
+			else
+				sortRows();
+			updateViewRows(0, rowCount);
 		}
+		shownState = (RowSortingState) getState();
+		orderChangeCount++;
 	}
 
 	/**
-	 * Have the decorator sort the rows by values of given column in given
-	 * order. Also notifies listeners of changes.
+	 * Resort the rows by the sort columns. In asynchronous mode the rows are
+	 * sorted in the background and keep their current order until the sort
+	 * has finished. If a preview is requested the leading rows are ordered
+	 * at once, if all rows fit into the preview they are sorted at once.
 	 * 
-	 * @param columnIndex
-	 *            index of column to sort by. Could be an int &gt;= 0 or NO_COLUMN
-	 * @param order
-	 *            can be ASCENDING or DESCENDING
-	 * @see #NO_COLUMN
-	 * @see #ASCENDING
-	 * @see #DESCENDING
+	 * @param preview
+	 *            true if the shown rows are the rows to sort, so a preview
+	 *            of them may be shown
+	 * @return true if the rows have been sorted, false if a background sort
+	 *         has been started
 	 */
-	public void sort(int columnIndex, boolean order) {
-		if ((columnIndex <= getColumnCount() && columnIndex >= 0)
-				|| columnIndex == NO_COLUMN) {
-
-			boolean mustSort = false;
-			if (columnIndex != sortColumn)
-				mustSort = true;
-			else if (columnIndex >= 0 && colOrder[columnIndex] != order)
-				mustSort = true;
-
-			if (mustSort) {
-				sortColumn = columnIndex;
-				if (sortColumn != NO_COLUMN)
-					colOrder[sortColumn] = order;
-				sort();
-				fireTableDataChanged();
-			}
+	private boolean startSort(boolean preview) {
+		preview = preview && previewRowCount > 0;
+		if (asynchronous && sortColumn != NO_COLUMN && getCachedOrder() == null
+				&& !(preview && rowCount <= previewRowCount)
+				&& !isSortDelegated()) {
+			submitSort();
+			if (preview && !isSortedByModel())
+				showPreview();
+			return false;
 		}
+		discardSort();
+		sort();
+		return true;
 	}
 
 	/**
-	 * Creates a Memento of the state of this wrapper. This can be used for a
-	 * restauration of the State.
+	 * Bring the rows into the order of the sort columns after some of them
+	 * have been changed. Uses the cheapest way possible for the kind of
+	 * change.
 	 * 
-	 * @return a JavaBean representing the state of the RowSorting Interface.
+	 * @param reversed
+	 *            true if only the order of <code>sortColumn</code> has been
+	 *            changed
+	 * @param validKeys
+	 *            the number of leading sort keys whose order is unchanged or
+	 *            0 if the rows have to be sorted completely
+	 * @return true if the rows have been sorted, false if a background sort
+	 *         has been started
 	 */
-	public Object getState() {
-		RowSortingState state = new RowSortingState();
-
-		state.setSortCol(sortColumn);
-		if (model != null) {
-			String[] names = new String[model.getColumnCount()];
-			for (int i = 0; i < model.getColumnCount(); i++)
-				names[i] = model.getColumnName(i);
-			state.setColNames(names);
-			state.setColOrder((boolean[]) colOrder.clone());
-		} else {
-			state.setColNames(new String[0]);
-			state.setColOrder(new boolean[0]);
+	private boolean reorder(boolean reversed, int validKeys) {
+		rememberOrder();
+		if (getCachedOrder() == null && !isSortDelegated()
+				&& !isSortedByModel()) {
+			if (reversed && pendingSort == null) {
+				reverse();
+				return true;
+			}
+			if (validKeys > 0 && !asynchronous) {
+				refine(validKeys);
+				return true;
+			}
 		}
-		return state;
+		return startSort(true);
 	}
 
 	/**
-	 * Resets this wrapper to the given state if the column structure is similar
-	 * to the one present while <code>getState()</code> was called. This method
-	 * must be called with a state object obtained by <code>getState()</code>.
+	 * Check if the rows are ordered by the source of a
+	 * <code>PagedTableModel</code> instead of being sorted here. This is the
+	 * case if the source can order its rows by all sort columns.
 	 * 
-	 * @param aState
-	 *            the state to set.
-	 * @return true if the column structure was similar and the state has been
-	 *         reset.
-	 * @see #getState
+	 * @return true if the sort is delegated to the model
 	 */
-	public boolean setState(Object aState) {
-		boolean ok = internalSetState(aState);
-		fireTableDataChanged();
-		return ok;
+	private boolean isSortDelegated() {
+		if (sortColumn == NO_COLUMN || !(model instanceof PagedTableModel))
+			return false;
+		PagedTableModel pagedModel = (PagedTableModel) model;
+		if (!pagedModel.isSortable(sortColumn))
+			return false;
+		for (int k = 0; k < secondaryColumns.length; k++) {
+			if (!pagedModel.isSortable(secondaryColumns[k]))
+				return false;
+		}
+		return true;
 	}
 
 	/**
-	 * Resets this wrapper to the given state if the column structure is similar
-	 * to the one present while <code>getState()</code> was called. This method
-	 * must be called with a state object obtained by <code>getState()</code>.
-	 * This does not notify event listeners contrary to
-	 * <code>setState(state)</code> but returns true if rows had to be sorted.
-	 * 
-	 * @param state
-	 *            the state to set.
-	 * @return true if the column structure was similar and the state has been
-	 *         reset.
-	 * @see #getState
+	 * Have the source of a <code>PagedTableModel</code> order its rows by
+	 * the sort columns if it can, or restore its natural order if the rows
+	 * are not sorted. If the rows of the model are reordered the cached
+	 * orders are dropped, since they refer to the old row numbers.
 	 */
-	private boolean internalSetState(Object aState) {
-		if (aState == null)
-			throw new IllegalArgumentException("NULL is not a legal state.");
-		if (!(aState instanceof RowSortingState))
-			throw new IllegalArgumentException(
-					"This was not a legal state obtained with getState()");
-		RowSortingState state = (RowSortingState) aState;
-		if (isSimilar(state)) {
-			colOrder = (boolean[]) state.getColOrder().clone();
-			sortColumn = state.getSortCol();
-			sort();
-			return true;
+	private void delegateSort() {
+		int[] columns;
+		if (isSortDelegated())
+			columns = getSortColumns();
+		else if (sortColumn == NO_COLUMN)
+			columns = new int[0];
+		else
+			return;
+		boolean reordered;
+		delegating = true;
+		try {
+			reordered = ((PagedTableModel) model).reorderRows(columns,
+					getOrders(columns));
+		} finally {
+			delegating = false;
 		}
-		return false;
+		if (reordered)
+			clearOrders();
 	}
 
 	/**
-	 * Check if the model is similar to the model present at the given state.
+	 * Check if a <code>SortableTableModel</code> provides the rows sorted by
+	 * the sort columns, so they need not be sorted here.
 	 * 
-	 * @param state
-	 *            the state to check
-	 * @return true if similar
+	 * @return true if the sorted rows are taken from the model
 	 */
-	private boolean isSimilar(RowSortingState state) {
-		String[] names = state.getColNames();
-		if (names.length != model.getColumnCount())
+	private boolean isSortedByModel() {
+		if (sortColumn == NO_COLUMN || !(model instanceof SortableTableModel))
 			return false;
-		String colName;
-
-		for (int i = 0; i < names.length; i++) {
-			colName = model.getColumnName(i);
-			if (names[i] == null || colName == null) {
-				if (colName != names[i])
-					return false;
-			} else if (!names[i].equals(colName))
-				return false;
-		}
-		return true;
+		int[] columns = getSortColumns();
+		return ((SortableTableModel) model).isSortable(columns,
+				getOrders(columns));
+	}
+
+	/**
+	 * Get the sort order of each of the given columns.
+	 * 
+	 * @param columns
+	 *            the columns in question
+	 * @return the order of each column
+	 */
+	private boolean[] getOrders(int[] columns) {
+		boolean[] orders = new boolean[columns.length];
+		for (int k = 0; k < columns.length; k++)
+			orders[k] = colOrder[columns[k]];
+		return orders;
+	}
+
+	/**
+	 * Get the cached rows in the order of the current sort columns.
+	 * 
+	 * @return the sorted rows or <code>null</code> if the order is not cached
+	 */
+	private int[] getCachedOrder() {
+		if (orderCache == null || sortColumn == NO_COLUMN)
+			return null;
+		return orderCache.get(new OrderKey(getSortColumns(), colOrder));
+	}
+
+	/**
+	 * Put the shown rows into the cache if they are in a known sort order
+	 * that is not cached yet. Must be called before the sort columns are
+	 * changed.
+	 */
+	private void rememberOrder() {
+		if (permutationCacheSize <= 0 || pendingSort != null
+				|| shownState == null || shownState.getSortCol() == NO_COLUMN
+				|| shownState.getSortCols() == null)
+			return;
+		if (orderCache == null)
+			orderCache = new PermutationCache();
+		OrderKey key = new OrderKey(shownState.getSortCols(),
+				shownState.getColOrder());
+		if (orderCache.get(key) == null) {
+			int[] rows = new int[rowCount];
+			System.arraycopy(sortedRow, 0, rows, 0, rowCount);
+			orderCache.put(key, rows);
+		}
+	}
+
+	/** Drop all cached orders */
+	private void clearOrders() {
+		if (orderCache != null)
+			orderCache.clear();
+	}
+
+	/**
+	 * Drop the cached orders that have been changed by the given event of the
+	 * model. Updates drop the orders using the updated column, all other
+	 * changes drop all orders. While sorting in the background updates are
+	 * not filtered at once, so they drop all orders if rows are filtered.
+	 * 
+	 * @param tme
+	 *            the event of the model
+	 */
+	private void invalidateOrders(TableModelEvent tme) {
+		if (orderCache == null || orderCache.isEmpty())
+			return;
+		int column = tme.getColumn();
+		if (tme.getType() != TableModelEvent.UPDATE
+				|| tme.getFirstRow() == TableModelEvent.HEADER_ROW
+				|| column == TableModelEvent.ALL_COLUMNS
+				|| (rowPredicate != null && pendingSort != null)) {
+			orderCache.clear();
+			return;
+		}
+		Iterator<OrderKey> keys = orderCache.keySet().iterator();
+		while (keys.hasNext()) {
+			if (indexOf(keys.next().columns, column) >= 0)
+				keys.remove();
+		}
+	}
+
+	/**
+	 * Start sorting the rows in the background. The values of the sort
+	 * columns are copied first, so the model is only accessed by the calling
+	 * thread. A background sort already running is cancelled.
+	 */
+	private void submitSort() {
+		discardSort();
+		fireSortProgress(SortProgressEvent.EXTRACTING, 0);
+		pendingSort = new SortJob();
+		getSortExecutor().execute(pendingSort);
+	}
+
+	/**
+	 * Order the first <code>previewRowCount</code> rows by the sort columns
+	 * while the background sort is running, so the top of the table shows
+	 * its final rows at once. A heap holding the least rows found so far
+	 * selects them with about <code>n log(previewRowCount)</code>
+	 * comparisons. The other rows keep their order behind them. Notifies
+	 * listeners of the new order.
+	 */
+	private void showPreview() {
+		prepareComparator();
+		int count = previewRowCount;
+		int[] heap = new int[count];
+		int size = 0;
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortedRow[i];
+			if (size < count) {
+				int pos = size++;
+				while (pos > 0) {
+					int parent = (pos - 1) >>> 1;
+					if (comparePreview(heap[parent], row) >= 0)
+						break;
+					heap[pos] = heap[parent];
+					pos = parent;
+				}
+				heap[pos] = row;
+			} else if (comparePreview(row, heap[0]) < 0) {
+				siftDown(heap, row, count);
+			}
+		}
+		// take the greatest row off the heap until it is in order
+		for (int end = count - 1; end > 0; end--) {
+			int greatest = heap[0];
+			siftDown(heap, heap[end], end);
+			heap[end] = greatest;
+		}
+
+		boolean[] previewed = new boolean[modelRowCount];
+		for (int i = 0; i < count; i++)
+			previewed[heap[i]] = true;
+		int dest = rowCount;
+		for (int i = rowCount - 1; i >= 0; i--) {
+			if (!previewed[sortedRow[i]])
+				sortedRow[--dest] = sortedRow[i];
+		}
+		System.arraycopy(heap, 0, sortedRow, 0, count);
+		updateViewRows(0, rowCount);
+		// the rows are in no known order until the sort has finished
+		shownState = null;
+		orderChangeCount++;
+		fireTableDataChanged();
+	}
+
+	/**
+	 * Put a row at the top of the heap used by <code>showPreview()</code>
+	 * replacing the greatest row and move it down to its place.
+	 * 
+	 * @param heap
+	 *            the rows with the greatest one on top
+	 * @param row
+	 *            the row to put into the heap
+	 * @param size
+	 *            the number of rows in the heap
+	 */
+	private void siftDown(int[] heap, int row, int size) {
+		int pos = 0;
+		for (int child = 1; child < size; child = 2 * pos + 1) {
+			if (child + 1 < size
+					&& comparePreview(heap[child + 1], heap[child]) > 0)
+				child++;
+			if (comparePreview(row, heap[child]) >= 0)
+				break;
+			heap[pos] = heap[child];
+			pos = child;
+		}
+		heap[pos] = row;
+	}
+
+	/**
+	 * Compare two rows of the model by the sort columns for the preview.
+	 * Rows with equal values are ordered by their row number like the stable
+	 * background sort of the rows in model order does.
+	 * 
+	 * @param i1
+	 *            row one to be compared
+	 * @param i2
+	 *            row two to be compared
+	 * @return the result of comparison
+	 */
+	private int comparePreview(int i1, int i2) {
+		int c = doCompare(i1, i2);
+		if (c == 0)
+			c = (i1 < i2) ? -1 : ((i1 == i2) ? 0 : 1);
+		return c;
+	}
+
+	/** Stop the background sort if one is running and drop its result */
+	private void discardSort() {
+		if (pendingSort != null) {
+			pendingSort.cancelled = true;
+			pendingSort = null;
+			fireSortProgress(SortProgressEvent.CANCELLED, 0);
+		}
+	}
+
+	/**
+	 * Cancel the background sort if one is running. The rows keep the order
+	 * they are shown in and the sort columns are reset to those of that
+	 * order. If the model has changed during the sort, so the shown order is
+	 * not known, the rows are shown in the order of the model.
+	 */
+	public void cancelSort() {
+		if (pendingSort == null)
+			return;
+		discardSort();
+		if (shownState != null) {
+			applyState(shownState);
+		} else {
+			sortColumn = NO_COLUMN;
+			secondaryColumns = new int[0];
+			initRows();
+			orderChangeCount++;
+			fireTableDataChanged();
+		}
+	}
+
+	/**
+	 * Replace the rows by the result of the given background sort unless it
+	 * has been cancelled meanwhile. Notifies listeners of the new order.
+	 * 
+	 * @param job
+	 *            the finished sort
+	 */
+	private void finishSort(SortJob job) {
+		if (job != pendingSort)
+			return;
+		fireSortProgress(SortProgressEvent.PUBLISHING, 1);
+		pendingSort = null;
+		sortedRow = job.sorter.sortedRow;
+		viewRow = job.sorter.viewRow;
+		rowCount = job.sorter.rowCount;
+		modelRowCount = job.sorter.modelRowCount;
+		shownState = job.state;
+		orderChangeCount++;
+		fireTableDataChanged();
+		fireSortProgress(SortProgressEvent.FINISHED, 1);
+	}
+
+	/**
+	 * Adds a listener that is notified about the progress of background
+	 * sorts.
+	 * 
+	 * @param l
+	 *            the <code>SortProgressListener</code>
+	 * @see #setAsynchronous
+	 */
+	public void addSortProgressListener(SortProgressListener l) {
+		listenerList.add(SortProgressListener.class, l);
+	}
+
+	/**
+	 * Removes a listener that was notified about the progress of background
+	 * sorts.
+	 * 
+	 * @param l
+	 *            the <code>SortProgressListener</code>
+	 */
+	public void removeSortProgressListener(SortProgressListener l) {
+		listenerList.remove(SortProgressListener.class, l);
+	}
+
+	/**
+	 * Get all listeners notified about the progress of background sorts.
+	 * 
+	 * @return all <code>SortProgressListener</code>s of this model
+	 */
+	public SortProgressListener[] getSortProgressListeners() {
+		return listenerList.getListeners(SortProgressListener.class);
+	}
+
+	/**
+	 * Notify all <code>SortProgressListener</code>s about the progress of
+	 * the background sort.
+	 * 
+	 * @param phase
+	 *            the phase of the sort
+	 * @param progress
+	 *            the fraction of the sort done
+	 */
+	private void fireSortProgress(int phase, double progress) {
+		Object[] listeners = listenerList.getListenerList();
+		SortProgressEvent e = null;
+		for (int i = listeners.length - 2; i >= 0; i -= 2) {
+			if (listeners[i] == SortProgressListener.class) {
+				if (e == null)
+					e = new SortProgressEvent(this, phase, progress);
+				((SortProgressListener) listeners[i + 1]).sortProgress(e);
+			}
+		}
+	}
+
+	/**
+	 * Reverse the sorted rows after the order of <code>sortColumn</code> has
+	 * been changed. Runs of rows with equal values in <code>sortColumn</code>
+	 * keep their order, so the result is the same a stable sort in the new
+	 * order would produce. This needs only one comparison per row instead of
+	 * a complete sort.
+	 */
+	private void reverse() {
+		prepareComparator();
+		if (isSortKeyExtractable(sortColumn))
+			sortKeys = extractSortKeys(orderComparator, sortColumn);
+		try {
+			int start = 0;
+			for (int i = 1; i <= rowCount; i++) {
+				if (i == rowCount
+						|| compareKeys(sortedRow[i - 1], sortedRow[i], 1) != 0) {
+					reverseRows(start, i);
+					start = i;
+				}
+			}
+		} finally {
+			sortKeys = null;
+		}
+		reverseRows(0, rowCount);
+		updateViewRows(0, rowCount);
+		shownState = (RowSortingState) getState();
+		orderChangeCount++;
+	}
+
+	/**
+	 * Reverse the sorted rows <code>from</code> to <code>to</code>
+	 * (exclusive) in place.
+	 * 
+	 * @param from
+	 *            the first sorted row to reverse
+	 * @param to
+	 *            the end of the sorted rows to reverse
+	 */
+	private void reverseRows(int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			int row = sortedRow[i];
+			sortedRow[i] = sortedRow[j];
+			sortedRow[j] = row;
+		}
+	}
+
+	/**
+	 * Get the number of times the order of the existing rows has been
+	 * changed. Inserting or deleting rows does not count as a change of the
+	 * order.
+	 * 
+	 * @return the number of order changes
+	 */
+	int getOrderChangeCount() {
+		return orderChangeCount;
+	}
+
+	/**
+	 * Sort the initialized rows by values of <code>sortColumn</code> and the
+	 * <code>secondaryColumns</code>
+	 */
+	private void sortRows() {
+		boolean defaultOrder = prepareComparator();
+
+		if (sortBuffer == null || sortBuffer.length < rowCount)
+			sortBuffer = new int[rowCount];
+
+		if (isSortedByModel()) {
+			sortByModel();
+			return;
+		}
+
+		if (isPrimitiveKeyAvailable(sortColumn)) {
+			extractSecondaryKeys();
+			try {
+				sortByModelKeys(colOrder[sortColumn]);
+			} finally {
+				secondaryKeys = null;
+			}
+			return;
+		}
+
+		extractAllSortKeys();
+		try {
+			if (sortKeys != null && defaultOrder
+					&& sortByPrimitiveKeys(colOrder[sortColumn]))
+				return;
+			if (isParallelSort())
+				IntSort.parallelSort(sortedRow, 0, rowCount,
+						sortingComparator, sortBuffer, getForkJoinPool(),
+						getParallelGranularity());
+			else
+				IntSort.sort(sortedRow, 0, rowCount, sortingComparator,
+						sortBuffer);
+		} finally {
+			sortKeys = null;
+			secondaryKeys = null;
+		}
+	}
+
+	/**
+	 * Sort the rows again after the sort keys following the first
+	 * <code>validKeys</code> ones have been changed. Only runs of rows with
+	 * equal values in the valid keys are sorted, since the order of the runs
+	 * does not change.
+	 * 
+	 * @param validKeys
+	 *            the number of leading sort keys whose order is unchanged
+	 */
+	private void refine(int validKeys) {
+		prepareComparator();
+		if (sortBuffer == null || sortBuffer.length < rowCount)
+			sortBuffer = new int[rowCount];
+		extractAllSortKeys();
+		try {
+			int start = 0;
+			for (int i = 1; i <= rowCount; i++) {
+				if (i == rowCount
+						|| compareKeys(sortedRow[i - 1], sortedRow[i],
+								validKeys) != 0) {
+					if (i - start > 1) {
+						// restore the order a stable sort would start with
+						Arrays.sort(sortedRow, start, i);
+						IntSort.sort(sortedRow, start, i, sortingComparator,
+								sortBuffer);
+					}
+					start = i;
+				}
+			}
+		} finally {
+			sortKeys = null;
+			secondaryKeys = null;
+		}
+		updateViewRows(0, rowCount);
+		shownState = (RowSortingState) getState();
+		orderChangeCount++;
+	}
+
+	/**
+	 * Fetch the values of all sort columns before sorting if the model
+	 * allows it.
+	 */
+	private void extractAllSortKeys() {
+		if (!primitiveKeyColumns[0] && isSortKeyExtractable(sortColumn))
+			sortKeys = extractSortKeys(orderComparator, sortColumn);
+		extractSecondaryKeys();
+	}
+
+	/**
+	 * Extract the sort keys of the <code>secondaryColumns</code> allowing
+	 * it.
+	 */
+	private void extractSecondaryKeys() {
+		secondaryKeys = new Object[secondaryColumns.length][];
+		for (int k = 0; k < secondaryColumns.length; k++) {
+			if (!primitiveKeyColumns[k + 1]
+					&& isSortKeyExtractable(secondaryColumns[k]))
+				secondaryKeys[k] = extractSortKeys(secondaryComparators[k],
+						secondaryColumns[k]);
+		}
+	}
+
+	/**
+	 * Set up the <code>orderComparator</code> for comparing values of
+	 * <code>sortColumn</code> and the <code>secondaryComparators</code> for
+	 * the <code>secondaryColumns</code>.
+	 * 
+	 * @return true if the <code>DefaultComparator</code> is used because the
+	 *         model does not provide a <code>Comparator</code> for the column
+	 */
+	private boolean prepareComparator() {
+		boolean defaultOrder = prepareComparator(orderComparator, sortColumn);
+		if (secondaryComparators.length != secondaryColumns.length)
+			secondaryComparators = createOrderComparators(
+					secondaryColumns.length);
+		for (int k = 0; k < secondaryColumns.length; k++)
+			prepareComparator(secondaryComparators[k], secondaryColumns[k]);
+		if (primitiveKeyColumns.length != secondaryColumns.length + 1)
+			primitiveKeyColumns = new boolean[secondaryColumns.length + 1];
+		primitiveKeyColumns[0] = isPrimitiveKeyAvailable(sortColumn);
+		for (int k = 0; k < secondaryColumns.length; k++)
+			primitiveKeyColumns[k + 1] = isPrimitiveKeyAvailable(
+					secondaryColumns[k]);
+		return defaultOrder;
+	}
+
+	/**
+	 * Create an array of new <code>OrderComparator</code>s.
+	 * 
+	 * @param count
+	 *            the number of comparators
+	 * @return the new comparators
+	 */
+	@SuppressWarnings("unchecked")
+	private static OrderComparator<Object>[] createOrderComparators(
+			int count) {
+		OrderComparator<Object>[] comparators =
+				(OrderComparator<Object>[]) new OrderComparator<?>[count];
+		for (int k = 0; k < count; k++)
+			comparators[k] = new OrderComparator<Object>();
+		return comparators;
+	}
+
+	/**
+	 * Set up the given comparator for comparing values of the given column.
+	 * 
+	 * @param comparator
+	 *            the comparator to set up
+	 * @param column
+	 *            the column to compare
+	 * @return true if the <code>DefaultComparator</code> is used because the
+	 *         model does not provide a <code>Comparator</code> for the column
+	 */
+	private boolean prepareComparator(OrderComparator<Object> comparator,
+			int column) {
+		comparator.setOrder(colOrder[column]);
+
+		Comparator<?> columnComparator = null;
+		if (model instanceof ComparatorTableModel) {
+			columnComparator = ((ComparatorTableModel) model)
+					.getComparator(column);
+		}
+		boolean defaultOrder = (columnComparator == null);
+		if (columnComparator == null)
+			columnComparator = defaultComparator;
+		comparator.setComparator((Comparator<Object>) columnComparator);
+		return defaultOrder;
+	}
+
+	/**
+	 * Insert the rows <code>first</code> to <code>last</code> that have been
+	 * inserted into the model at their sorted positions without resorting the
+	 * other rows. Each inserted row is placed by binary search, existing rows
+	 * are renumbered in a single pass. Inserted rows not accepted by
+	 * <code>rowPredicate</code> are left out. Notifies listeners of the
+	 * inserted sorted rows.
+	 * 
+	 * @param first
+	 *            the first inserted row of the model
+	 * @param last
+	 *            the last inserted row of the model
+	 * @return false if the rows do not match the model and must be reset
+	 */
+	private boolean insertRows(int first, int last) {
+		int count = last - first + 1;
+		if (first < 0 || count <= 0 || first > modelRowCount
+				|| modelRowCount + count != model.getRowCount())
+			return false;
+		if (sortColumn == NO_COLUMN && rowPredicate == null) {
+			initRows();
+		} else {
+			if (sortColumn != NO_COLUMN)
+				prepareComparator();
+			shiftRows(first, count);
+			mergeRows(first, last);
+			resetViewRows();
+		}
+		fireRowsChanged(getViewRows(first, last), TableModelEvent.INSERT,
+				TableModelEvent.ALL_COLUMNS);
+		return true;
+	}
+
+	/**
+	 * Append the rows <code>first</code> to <code>last</code> that have been
+	 * inserted into the model to the end of the rows while a background sort
+	 * is running. Inserted rows not accepted by <code>rowPredicate</code> are
+	 * left out. Notifies listeners of the inserted sorted rows.
+	 * 
+	 * @param first
+	 *            the first inserted row of the model
+	 * @param last
+	 *            the last inserted row of the model
+	 * @return false if the rows do not match the model and must be reset
+	 */
+	private boolean appendRows(int first, int last) {
+		int count = last - first + 1;
+		if (first < 0 || count <= 0 || first > modelRowCount
+				|| modelRowCount + count != model.getRowCount())
+			return false;
+		shiftRows(first, count);
+		int start = rowCount;
+		for (int row = first; row <= last; row++) {
+			if (isAccepted(row))
+				sortedRow[rowCount++] = row;
+		}
+		resetViewRows();
+		if (rowCount > start)
+			fireTableRowsInserted(start, rowCount - 1);
+		return true;
+	}
+
+	/**
+	 * Renumber the sorted rows after <code>count</code> rows have been
+	 * inserted into the model at <code>first</code> and make room for them.
+	 * The inserted rows are not added and <code>viewRow</code> is not
+	 * updated.
+	 * 
+	 * @param first
+	 *            the first inserted row of the model
+	 * @param count
+	 *            the number of inserted rows
+	 */
+	private void shiftRows(int first, int count) {
+		ensureRowCapacity(modelRowCount + count);
+		if (first < modelRowCount) {
+			for (int i = 0; i < rowCount; i++) {
+				if (sortedRow[i] >= first)
+					sortedRow[i] += count;
+			}
+		}
+		modelRowCount += count;
+	}
+
+	/**
+	 * Merge the rows <code>first</code> to <code>last</code> of the model,
+	 * which are not yet contained in <code>sortedRow</code>, into the sorted
+	 * rows. Rows not accepted by <code>rowPredicate</code> are left out.
+	 * <code>sortedRow</code> must have enough capacity and the comparator
+	 * must be prepared.
+	 * 
+	 * @param first
+	 *            the first row to merge
+	 * @param last
+	 *            the last row to merge
+	 */
+	private void mergeRows(int first, int last) {
+		int count = 0;
+		int[] merged = new int[last - first + 1];
+		for (int row = first; row <= last; row++) {
+			if (isAccepted(row))
+				merged[count++] = row;
+		}
+		mergeRows(merged, count);
+	}
+
+	/**
+	 * Merge the given rows of the model, which are not yet contained in
+	 * <code>sortedRow</code>, into the sorted rows. <code>sortedRow</code>
+	 * must have enough capacity and the comparator must be prepared.
+	 * 
+	 * @param merged
+	 *            the rows to merge, the array is sorted by this method
+	 * @param count
+	 *            the number of rows in <code>merged</code>
+	 */
+	private void mergeRows(int[] merged, int count) {
+		if (sortColumn != NO_COLUMN)
+			IntSort.sort(merged, 0, count, sortingComparator, null);
+		int[] position = new int[count];
+		for (int i = 0; i < count; i++)
+			position[i] = findInsertPosition(merged[i], 0, rowCount);
+
+		int src = rowCount - 1;
+		int dest = rowCount + count - 1;
+		for (int i = count - 1; i >= 0; i--) {
+			while (src >= position[i])
+				sortedRow[dest--] = sortedRow[src--];
+			sortedRow[dest--] = merged[i];
+		}
+		rowCount += count;
+	}
+
+	/**
+	 * Move the rows <code>first</code> to <code>last</code> whose values of
+	 * <code>sortColumn</code> have been changed to their new sorted
+	 * positions. A single row is moved by shifting only the rows between its
+	 * old and new position. Several rows are removed and merged in again.
+	 * Notifies listeners of the range of sorted rows that changed.
+	 * 
+	 * @param first
+	 *            the first updated row of the model
+	 * @param last
+	 *            the last updated row of the model
+	 * @param column
+	 *            the updated column or <code>ALL_COLUMNS</code>
+	 * @return false if the rows do not match the model or are too many, so
+	 *         all rows must be resorted
+	 */
+	private boolean updateRows(int first, int last, int column) {
+		int count = last - first + 1;
+		if (first < 0 || count <= 0 || last >= modelRowCount
+				|| count > modelRowCount / MAX_UPDATE_FRACTION + 1)
+			return false;
+		prepareComparator();
+
+		int[] oldRows = getViewRows(first, last);
+		if (count == 1) {
+			if (viewRow[first] >= 0)
+				moveRow(first);
+		} else {
+			int dest = 0;
+			for (int i = 0; i < rowCount; i++) {
+				int row = sortedRow[i];
+				if (row < first || row > last)
+					sortedRow[dest++] = row;
+			}
+			rowCount = dest;
+			mergeRows(first, last);
+			updateViewRows(0, rowCount);
+		}
+		int[] newRows = getViewRows(first, last);
+		int from = Integer.MAX_VALUE;
+		int to = -1;
+		boolean moved = false;
+		for (int i = 0; i < newRows.length; i++) {
+			from = Math.min(from, Math.min(oldRows[i], newRows[i]));
+			to = Math.max(to, Math.max(oldRows[i], newRows[i]));
+			moved |= (oldRows[i] != newRows[i]);
+		}
+		if (moved) {
+			orderChangeCount++;
+			fireTableRowsUpdated(from, to);
+		}
+		else
+			fireRowsChanged(newRows, TableModelEvent.UPDATE, column);
+		return true;
+	}
+
+	/**
+	 * Notifies listeners that the values of the rows <code>first</code> to
+	 * <code>last</code> of the model have changed in a column that does not
+	 * affect the order of rows.
+	 * 
+	 * @param first
+	 *            the first updated row of the model
+	 * @param last
+	 *            the last updated row of the model, may be
+	 *            <code>Integer.MAX_VALUE</code> for all rows
+	 * @param column
+	 *            the updated column
+	 * @return false if the rows do not match the model
+	 */
+	private boolean translateUpdate(int first, int last, int column) {
+		if (first < 0 || last < first)
+			return false;
+		if (last >= modelRowCount || last - first + 1 > MAX_TRANSLATED_ROWS) {
+			if (rowCount > 0)
+				fireTableChanged(new TableModelEvent(this, 0, rowCount - 1,
+						column));
+		} else {
+			fireRowsChanged(getViewRows(first, last), TableModelEvent.UPDATE,
+					column);
+		}
+		return true;
+	}
+
+	/**
+	 * Place the given rows of the model, whose values have changed in the
+	 * given column, anew. Rows whose order or filtering may have changed are
+	 * removed and those accepted by <code>rowPredicate</code> are merged in
+	 * again, so each of them is compared with the new values of the others.
+	 * Notifies listeners of the sorted rows that changed.
+	 * 
+	 * @param rows
+	 *            the updated rows of the model
+	 * @param column
+	 *            the updated column or <code>ALL_COLUMNS</code>
+	 */
+	private void updateRows(BitSet rows, int column) {
+		for (int first = rows.nextSetBit(0); first >= 0;) {
+			int last = rows.nextClearBit(first) - 1;
+			TableModelEvent tme = new TableModelEvent(model, first, last,
+					column);
+			invalidateOrders(tme);
+			invalidateCollationKeys(tme);
+			first = rows.nextSetBit(last + 1);
+		}
+		int count = 0;
+		int accepted = 0;
+		int[] updated = new int[rows.cardinality()];
+		int[] merged = new int[updated.length];
+		boolean filterChanged = false;
+		for (int row = rows.nextSetBit(0); row >= 0; row = rows
+				.nextSetBit(row + 1)) {
+			boolean accept = isAccepted(row);
+			if (accept)
+				merged[accepted++] = row;
+			if (accept || viewRow[row] >= 0)
+				updated[count++] = row;
+			filterChanged |= (accept != (viewRow[row] >= 0));
+		}
+		int[] oldRows = new int[count];
+		for (int i = 0; i < count; i++)
+			oldRows[i] = viewRow[updated[i]];
+		boolean ordered = sortColumn != NO_COLUMN
+				&& (column == TableModelEvent.ALL_COLUMNS
+						|| column == sortColumn || indexOf(secondaryColumns,
+						column) >= 0);
+		if (!ordered && !filterChanged) {
+			fireRowsChanged(oldRows, TableModelEvent.UPDATE, column);
+			return;
+		}
+
+		if (sortColumn != NO_COLUMN)
+			prepareComparator();
+		int dest = 0;
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortedRow[i];
+			if (!rows.get(row))
+				sortedRow[dest++] = row;
+		}
+		rowCount = dest;
+		mergeRows(merged, accepted);
+		if (filterChanged) {
+			resetViewRows();
+			clearOrders();
+			orderChangeCount++;
+			fireTableDataChanged();
+			return;
+		}
+		updateViewRows(0, rowCount);
+		int from = Integer.MAX_VALUE;
+		int to = -1;
+		boolean moved = false;
+		for (int i = 0; i < count; i++) {
+			int newRow = viewRow[updated[i]];
+			from = Math.min(from, Math.min(oldRows[i], newRow));
+			to = Math.max(to, Math.max(oldRows[i], newRow));
+			moved |= (oldRows[i] != newRow);
+		}
+		if (moved) {
+			orderChangeCount++;
+			fireTableRowsUpdated(from, to);
+		} else
+			fireRowsChanged(oldRows, TableModelEvent.UPDATE, column);
+	}
+
+	/**
+	 * Check if the given row of the model is accepted by
+	 * <code>rowPredicate</code>.
+	 * 
+	 * @param row
+	 *            the row of the model
+	 * @return true if the row is shown
+	 */
+	private boolean isAccepted(int row) {
+		return rowPredicate == null || rowPredicate.accept(model, row);
+	}
+
+	/**
+	 * Check if some of the rows <code>first</code> to <code>last</code> of
+	 * the model are accepted by <code>rowPredicate</code> but not shown or
+	 * the other way round.
+	 * 
+	 * @param first
+	 *            the first row of the model
+	 * @param last
+	 *            the last row of the model
+	 * @return true if the rows shown have to be changed or the rows do not
+	 *         match the model
+	 */
+	private boolean isFilterChanged(int first, int last) {
+		if (first < 0 || last < first || last >= modelRowCount)
+			return true;
+		for (int row = first; row <= last; row++) {
+			if (isAccepted(row) != (viewRow[row] >= 0))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Filter the rows <code>first</code> to <code>last</code> of the model
+	 * again after they have been updated. The rows are removed and those
+	 * accepted by <code>rowPredicate</code> are merged in again without
+	 * resorting the other rows. Notifies listeners that all rows have
+	 * changed.
+	 * 
+	 * @param first
+	 *            the first updated row of the model
+	 * @param last
+	 *            the last updated row of the model
+	 * @return false if the rows do not match the model or are too many, so
+	 *         all rows must be filtered and sorted again
+	 */
+	private boolean refilterRows(int first, int last) {
+		int count = last - first + 1;
+		if (first < 0 || count <= 0 || last >= modelRowCount
+				|| count > modelRowCount / MAX_UPDATE_FRACTION + 1)
+			return false;
+		if (sortColumn != NO_COLUMN)
+			prepareComparator();
+		int dest = 0;
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortedRow[i];
+			if (row < first || row > last)
+				sortedRow[dest++] = row;
+		}
+		rowCount = dest;
+		mergeRows(first, last);
+		resetViewRows();
+		clearOrders();
+		orderChangeCount++;
+		fireTableDataChanged();
+		return true;
+	}
+
+	/**
+	 * Get the sorted row numbers of the given rows of the model. Filtered
+	 * rows are left out.
+	 * 
+	 * @param first
+	 *            the first row of the model
+	 * @param last
+	 *            the last row of the model
+	 * @return the sorted row numbers in the order of the model
+	 */
+	private int[] getViewRows(int first, int last) {
+		int count = 0;
+		int[] rows = new int[last - first + 1];
+		for (int row = first; row <= last; row++) {
+			if (viewRow[row] >= 0)
+				rows[count++] = viewRow[row];
+		}
+		if (count < rows.length) {
+			int[] shown = new int[count];
+			System.arraycopy(rows, 0, shown, 0, count);
+			rows = shown;
+		}
+		return rows;
+	}
+
+	/**
+	 * Notifies listeners about a change of the given sorted rows. Adjacent
+	 * rows are reported in one event. Inserted rows are reported in ascending
+	 * and deleted rows in descending order so that each event is valid after
+	 * the previous ones have been processed. If the rows are scattered too
+	 * much a single event covering all of them is fired instead.
+	 * 
+	 * @param rows
+	 *            the sorted row numbers, the new ones for inserts and the old
+	 *            ones for deletes. The array is sorted by this method.
+	 * @param type
+	 *            the type of the change as defined in
+	 *            <code>TableModelEvent</code>
+	 * @param column
+	 *            the changed column or <code>ALL_COLUMNS</code>
+	 */
+	private void fireRowsChanged(int[] rows, int type, int column) {
+		if (rows.length == 0)
+			return;
+		Arrays.sort(rows);
+		int runs = 1;
+		for (int i = 1; i < rows.length; i++) {
+			if (rows[i] != rows[i - 1] + 1)
+				runs++;
+		}
+		if (runs > MAX_TRANSLATED_RUNS) {
+			if (type == TableModelEvent.UPDATE)
+				fireTableChanged(new TableModelEvent(this, rows[0],
+						rows[rows.length - 1], column));
+			else
+				fireTableDataChanged();
+			return;
+		}
+		if (type == TableModelEvent.DELETE) {
+			int end = rows.length - 1;
+			for (int i = rows.length - 1; i >= 0; i--) {
+				if (i == 0 || rows[i - 1] != rows[i] - 1) {
+					fireTableRowsDeleted(rows[i], rows[end]);
+					end = i - 1;
+				}
+			}
+		} else {
+			int start = 0;
+			for (int i = 0; i < rows.length; i++) {
+				if (i == rows.length - 1 || rows[i + 1] != rows[i] + 1) {
+					fireTableChanged(new TableModelEvent(this, rows[start],
+							rows[i], column, type));
+					start = i + 1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Move a single row of the model to its new sorted position assuming all
+	 * other rows are in order.
+	 * 
+	 * @param row
+	 *            the row of the model to move
+	 */
+	private void moveRow(int row) {
+		int pos = viewRow[row];
+		int target = pos;
+		if (pos > 0 && compareRows(row, sortedRow[pos - 1]) < 0)
+			target = findInsertPosition(row, 0, pos);
+		else if (pos < rowCount - 1 && compareRows(row, sortedRow[pos + 1]) > 0)
+			target = findInsertPosition(row, pos + 1, rowCount) - 1;
+
+		if (target < pos) {
+			System.arraycopy(sortedRow, target, sortedRow, target + 1, pos
+					- target);
+			sortedRow[target] = row;
+			updateViewRows(target, pos + 1);
+		} else if (target > pos) {
+			System.arraycopy(sortedRow, pos + 1, sortedRow, pos, target - pos);
+			sortedRow[target] = row;
+			updateViewRows(pos, target + 1);
+		}
+	}
+
+	/**
+	 * Remove the rows <code>first</code> to <code>last</code> that have been
+	 * deleted from the model and renumber the remaining rows in a single pass
+	 * keeping their order. Notifies listeners of the deleted sorted rows.
+	 * 
+	 * @param first
+	 *            the first deleted row of the model
+	 * @param last
+	 *            the last deleted row of the model
+	 * @return false if the rows do not match the model and must be reset
+	 */
+	private boolean deleteRows(int first, int last) {
+		int count = last - first + 1;
+		if (first < 0 || count <= 0 || last >= modelRowCount
+				|| modelRowCount - count != model.getRowCount())
+			return false;
+		int[] deleted = getViewRows(first, last);
+		int dest = 0;
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortedRow[i];
+			if (row < first)
+				sortedRow[dest++] = row;
+			else if (row > last)
+				sortedRow[dest++] = row - count;
+		}
+		rowCount = dest;
+		modelRowCount -= count;
+		resetViewRows();
+		fireRowsChanged(deleted, TableModelEvent.DELETE,
+				TableModelEvent.ALL_COLUMNS);
+		return true;
+	}
+
+	/**
+	 * Find the position in the sorted range <code>[from, to)</code> of
+	 * <code>sortedRow</code> where the given row has to be inserted. Rows
+	 * with equal values are ordered by their row number like a stable sort
+	 * would order them.
+	 * 
+	 * @param row
+	 *            the row of the model to be inserted
+	 * @param from
+	 *            the start of the range to search (inclusive)
+	 * @param to
+	 *            the end of the range to search (exclusive)
+	 * @return the position to insert the row at
+	 */
+	private int findInsertPosition(int row, int from, int to) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (compareRows(row, sortedRow[mid]) < 0)
+				high = mid;
+			else
+				low = mid + 1;
+		}
+		return low;
+	}
+
+	/**
+	 * Compare two different rows of the model like <code>doCompare</code>
+	 * but order rows with equal values by their row number like a stable
+	 * sort would. Without sort column rows are only ordered by their row
+	 * number.
+	 * 
+	 * @param row1
+	 *            row one to be compared
+	 * @param row2
+	 *            row two to be compared
+	 * @return the result of comparison, never 0 for different rows
+	 */
+	private int compareRows(int row1, int row2) {
+		int c = (sortColumn == NO_COLUMN) ? 0 : doCompare(row1, row2);
+		if (c == 0)
+			c = (row1 < row2) ? -1 : ((row1 == row2) ? 0 : 1);
+		return c;
+	}
+
+	/**
+	 * Sort the rows using a radix sort on primitive keys computed from the
+	 * extracted <code>sortKeys</code>. This is only possible if the class of
+	 * <code>sortColumn</code> is one of <code>PRIMITIVE_KEY_CLASSES</code>
+	 * or <code>String</code> and all values are of exactly that class or
+	 * <code>null</code>. The resulting order is the same the
+	 * <code>DefaultComparator</code> would produce. Runs of rows with equal
+	 * keys are sorted by the <code>secondaryColumns</code> afterwards.
+	 * 
+	 * Strings are keyed by the abbreviated keys of the characters following
+	 * their common prefix. Runs of rows with equal keys are sorted by
+	 * comparing the strings, so only ties of the keys compare strings.
+	 * 
+	 * @param order
+	 *            the order to sort in
+	 * @return false if the values are not suitable for primitive keys and the
+	 *         rows have not been sorted
+	 */
+	private boolean sortByPrimitiveKeys(boolean order) {
+		Class<?> keyClass = model.getColumnClass(sortColumn);
+		boolean abbreviated = (keyClass == String.class);
+		if (!abbreviated
+				&& !Arrays.asList(PRIMITIVE_KEY_CLASSES).contains(keyClass))
+			return false;
+
+		int nulls = 0;
+		for (int i = 0; i < rowCount; i++) {
+			Object value = sortKeys[sortedRow[i]];
+			if (value == null)
+				nulls++;
+			else if (value.getClass() != keyClass)
+				return false;
+		}
+
+		int offset = abbreviated ? getCommonPrefixLength() : 0;
+		// the rows are distributed from a copy in the order of the model
+		System.arraycopy(sortedRow, 0, sortBuffer, 0, rowCount);
+		// nulls are less than everything else
+		int nullPos = (order == ASCENDING) ? 0 : rowCount - nulls;
+		int keyPos = (order == ASCENDING) ? nulls : 0;
+		int keyStart = keyPos;
+		long[] keys = new long[rowCount];
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortBuffer[i];
+			Object value = sortKeys[row];
+			if (value == null) {
+				sortedRow[nullPos++] = row;
+			} else {
+				long key = abbreviated ? AbbreviatedKeys.toSortableKey(
+						(String) value, offset) : toPrimitiveKey(value);
+				// DefaultComparator compares Comparables of the same class in
+				// reverse natural order
+				keys[keyPos] = (order == ASCENDING) ? ~key : key;
+				sortedRow[keyPos++] = row;
+			}
+		}
+		if (isParallelSort())
+			RadixSort.parallelSort(sortedRow, keys, keyStart, keyPos,
+					sortBuffer, null, getForkJoinPool(),
+					getParallelGranularity());
+		else
+			RadixSort.sort(sortedRow, keys, keyStart, keyPos, sortBuffer, null);
+
+		if (secondaryColumns.length > 0) {
+			int nullStart = (order == ASCENDING) ? 0 : rowCount - nulls;
+			sortRun(nullStart, nullStart + nulls);
+		}
+		if (secondaryColumns.length > 0 || abbreviated) {
+			int start = keyStart;
+			for (int i = keyStart + 1; i <= keyPos; i++) {
+				if (i == keyPos || keys[i] != keys[i - 1]) {
+					sortRun(start, i);
+					start = i;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Take the sorted rows from the cursor a <code>SortableTableModel</code>
+	 * provides for the sort columns. Rows not shown are skipped, no values
+	 * are compared.
+	 * 
+	 * @throws IllegalStateException
+	 *             if the cursor does not deliver each row of the model once
+	 */
+	private void sortByModel() {
+		int[] columns = getSortColumns();
+		RowCursor cursor = ((SortableTableModel) model).getSortedRows(
+				columns, getOrders(columns));
+		boolean[] delivered = new boolean[modelRowCount];
+		int count = 0;
+		int total = 0;
+		try {
+			for (int row = cursor.nextRow(); row >= 0; row = cursor.nextRow()) {
+				if (row >= modelRowCount || delivered[row])
+					throw new IllegalStateException("Illegal sorted row "
+							+ row);
+				delivered[row] = true;
+				total++;
+				// shown rows have a sorted row number after initRows()
+				if (viewRow[row] >= 0)
+					sortBuffer[count++] = row;
+				countComparison();
+			}
+		} finally {
+			cursor.close();
+		}
+		if (total != modelRowCount)
+			throw new IllegalStateException("Got " + total
+					+ " sorted rows instead of " + modelRowCount);
+		System.arraycopy(sortBuffer, 0, sortedRow, 0, rowCount);
+	}
+
+	/**
+	 * Sort the rows by a radix sort of the primitive keys a
+	 * <code>PrimitiveKeyTableModel</code> provides for <code>sortColumn</code>.
+	 * No values of <code>sortColumn</code> are fetched or compared. Runs of
+	 * rows with equal keys are sorted by the <code>secondaryColumns</code>.
+	 * 
+	 * @param order
+	 *            the order to sort in
+	 */
+	private void sortByModelKeys(boolean order) {
+		PrimitiveKeyTableModel keyModel = (PrimitiveKeyTableModel) model;
+		long[] keys = new long[rowCount];
+		for (int i = 0; i < rowCount; i++) {
+			long key = keyModel.getPrimitiveKey(sortedRow[i], sortColumn);
+			keys[i] = (order == ASCENDING) ? key : ~key;
+		}
+		if (parallelThreshold > 0 && rowCount >= parallelThreshold)
+			RadixSort.parallelSort(sortedRow, keys, 0, rowCount, sortBuffer,
+					null, getForkJoinPool(), getParallelGranularity());
+		else
+			RadixSort.sort(sortedRow, keys, 0, rowCount, sortBuffer, null);
+
+		if (secondaryColumns.length == 0)
+			return;
+		int start = 0;
+		for (int i = 1; i <= rowCount; i++) {
+			if (i == rowCount || keys[i] != keys[i - 1]) {
+				if (i - start > 1)
+					IntSort.sort(sortedRow, start, i, tieComparator, sortBuffer);
+				start = i;
+			}
+		}
+	}
+
+	/**
+	 * Check if the model provides primitive sort keys for a column.
+	 * 
+	 * @param column
+	 *            the column in question
+	 * @return true if the model is a <code>PrimitiveKeyTableModel</code>
+	 *         providing keys for the column
+	 */
+	private boolean isPrimitiveKeyAvailable(int column) {
+		return model instanceof PrimitiveKeyTableModel
+				&& ((PrimitiveKeyTableModel) model)
+						.isPrimitiveKeyAvailable(column);
+	}
+
+	/**
+	 * Sort the rows <code>from</code> to <code>to</code> (exclusive) of a
+	 * run with equal primitive keys by comparing them. Long runs are sorted
+	 * in parallel if the whole sort is.
+	 * 
+	 * @param from
+	 *            the first sorted row of the run
+	 * @param to
+	 *            the end of the sorted rows of the run
+	 */
+	private void sortRun(int from, int to) {
+		if (to - from < 2)
+			return;
+		if (to - from >= parallelThreshold && isParallelSort())
+			IntSort.parallelSort(sortedRow, from, to, sortingComparator,
+					sortBuffer, getForkJoinPool(), getParallelGranularity());
+		else
+			IntSort.sort(sortedRow, from, to, sortingComparator, sortBuffer);
+	}
+
+	/**
+	 * Compute the number of leading characters all extracted string
+	 * <code>sortKeys</code> of the shown rows have in common.
+	 * 
+	 * @return the length of the common prefix
+	 */
+	private int getCommonPrefixLength() {
+		String first = null;
+		int length = 0;
+		for (int i = 0; i < rowCount; i++) {
+			String value = (String) sortKeys[sortedRow[i]];
+			if (value == null)
+				continue;
+			if (first == null) {
+				first = value;
+				length = value.length();
+			} else {
+				length = AbbreviatedKeys.commonPrefixLength(first, value,
+						length);
+				if (length == 0)
+					break;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Check if the current sort should be done in parallel. This is only the
+	 * case if the sort keys of all sort columns have been extracted, so that
+	 * the worker threads never call into the decorated model.
+	 * 
+	 * @return true if the rows should be sorted in parallel
+	 */
+	private boolean isParallelSort() {
+		if (sortKeys == null || parallelThreshold <= 0
+				|| rowCount < parallelThreshold)
+			return false;
+		for (int k = 0; k < secondaryColumns.length; k++) {
+			if (secondaryKeys == null || secondaryKeys[k] == null)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Compute the length of the chunks of rows that are sorted sequentially
+	 * by one thread during a parallel sort.
+	 * 
+	 * @return the chunk length
+	 */
+	private int getParallelGranularity() {
+		int chunks = getForkJoinPool().getParallelism() * 4;
+		return Math.max(MIN_PARALLEL_GRANULARITY, rowCount / chunks);
+	}
+
+	/**
+	 * Get the number of rows from which on the rows are sorted in parallel if
+	 * their sort keys are extracted.
+	 * 
+	 * @return the row count threshold or 0 if parallel sorting is disabled
+	 * @see de.tkuhn.swing.table.SortKeyTableModel
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Set the number of rows from which on the rows are sorted in parallel.
+	 * Only columns whose sort keys are extracted are sorted in parallel since
+	 * the decorated model is not accessed from other threads. The
+	 * <code>Comparator</code> of such a column has to be thread safe. The
+	 * order of a parallel sort is the same as the one of a sequential sort.
+	 * 
+	 * @param parallelThreshold
+	 *            the row count threshold or 0 to disable parallel sorting
+	 * @see de.tkuhn.swing.table.SortKeyTableModel
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		if (parallelThreshold < 0)
+			throw new IllegalArgumentException(
+					"Threshold must not be negative: " + parallelThreshold);
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Get the <code>ForkJoinPool</code> used for parallel sorting. If none
+	 * has been set a pool shared by all models is used. It is created when
+	 * first needed with one daemon thread per processor.
+	 * 
+	 * @return the pool used for parallel sorting
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		if (forkJoinPool == null)
+			return getSharedForkJoinPool();
+		return forkJoinPool;
+	}
+
+	/**
+	 * Get the <code>ForkJoinPool</code> shared by all models that have no
+	 * pool of their own. Its threads are daemon threads, so it need not be
+	 * shut down.
+	 * 
+	 * @return the shared pool
+	 */
+	private static synchronized ForkJoinPool getSharedForkJoinPool() {
+		if (sharedForkJoinPool == null)
+			sharedForkJoinPool = new ForkJoinPool();
+		return sharedForkJoinPool;
+	}
+
+	/**
+	 * Set the <code>ForkJoinPool</code> used for parallel sorting. The model
+	 * does not shut the pool down.
+	 * 
+	 * @param forkJoinPool
+	 *            the pool to use or <code>null</code> for the shared pool
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Is this model sorting its rows in the background?
+	 * 
+	 * @return Value of property asynchronous.
+	 */
+	public boolean isAsynchronous() {
+		return asynchronous;
+	}
+
+	/**
+	 * Set if this model should sort its rows in the background. The values of
+	 * the sort columns are fetched by the thread changing the sort order.
+	 * The rows keep their current order until the background sort has
+	 * finished and are then replaced at once on the event dispatch thread.
+	 * Starting another sort cancels the running one. The
+	 * <code>Comparator</code>s of a <code>ComparatorTableModel</code> are
+	 * called by the background thread and must be thread safe.
+	 * 
+	 * @param asynchronous
+	 *            New value of property asynchronous.
+	 */
+	public void setAsynchronous(boolean asynchronous) {
+		this.asynchronous = asynchronous;
+		if (!asynchronous && pendingSort != null) {
+			discardSort();
+			sort();
+			fireTableDataChanged();
+		}
+	}
+
+	/**
+	 * Get the <code>Executor</code> running background sorts. If none has
+	 * been set a single daemon thread is used.
+	 * 
+	 * @return the executor used for asynchronous sorting
+	 */
+	public Executor getSortExecutor() {
+		if (sortExecutor == null) {
+			sortExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+				/**
+				 * Implementation of <code>newThread(runnable)</code> in the
+				 * interface <code>java.util.concurrent.ThreadFactory</code>.
+				 * 
+				 * @param r
+				 *            the runnable to be run by the thread
+				 * @return a new daemon thread
+				 */
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "RowSortingTableModel sorter");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return sortExecutor;
+	}
+
+	/**
+	 * Set the <code>Executor</code> running background sorts.
+	 * 
+	 * @param sortExecutor
+	 *            the executor to use or <code>null</code> for a default one
+	 */
+	public void setSortExecutor(Executor sortExecutor) {
+		this.sortExecutor = sortExecutor;
+	}
+
+	/**
+	 * Is a background sort running whose result has not been shown yet?
+	 * 
+	 * @return true if the rows are being sorted in the background
+	 */
+	public boolean isSorting() {
+		return pendingSort != null;
+	}
+
+	/**
+	 * Get the number of sort orders whose sorted rows are cached.
+	 * 
+	 * @return Value of property permutationCacheSize.
+	 */
+	public int getPermutationCacheSize() {
+		return permutationCacheSize;
+	}
+
+	/**
+	 * Set the number of sort orders whose sorted rows are cached. When the
+	 * rows are sorted by a cached order again they are copied from the cache
+	 * instead of being sorted. The least recently used orders are dropped
+	 * first. Changes of the model drop the orders of the changed columns,
+	 * inserted and deleted rows drop all orders. Each cached order needs an
+	 * <code>int</code> per shown row.
+	 * 
+	 * @param permutationCacheSize
+	 *            New value of property permutationCacheSize, 0 disables the
+	 *            cache
+	 */
+	public void setPermutationCacheSize(int permutationCacheSize) {
+		this.permutationCacheSize = permutationCacheSize;
+		clearOrders();
+	}
+
+	/**
+	 * Get the number of leading rows ordered at once before a background
+	 * sort.
+	 * 
+	 * @return Value of property previewRowCount.
+	 */
+	public int getPreviewRowCount() {
+		return previewRowCount;
+	}
+
+	/**
+	 * Set the number of leading rows ordered at once when a background sort
+	 * is started by a change of the sort columns. These rows are selected
+	 * and shown in their final order before the rows are sorted completely,
+	 * so a table shows its first screen of rows almost immediately. Should
+	 * be about the number of rows visible in the table. If there are no more
+	 * rows than this they are sorted at once. Only used in asynchronous
+	 * mode.
+	 * 
+	 * @param previewRowCount
+	 *            New value of property previewRowCount, 0 disables the
+	 *            preview
+	 * @see #setAsynchronous
+	 */
+	public void setPreviewRowCount(int previewRowCount) {
+		this.previewRowCount = previewRowCount;
+	}
+
+	/**
+	 * Get the time events of the model are collected before they are
+	 * processed together.
+	 * 
+	 * @return Value of property coalescingDelay.
+	 */
+	public int getCoalescingDelay() {
+		return coalescingDelay;
+	}
+
+	/**
+	 * Set the time events of the model are collected before they are
+	 * processed together. Models changing many rows in quick succession, like
+	 * a feed of live data, would otherwise have the rows placed and the
+	 * listeners notified for every single change. Collected events are
+	 * merged: updated rows are gathered in a set and adjacent inserts or
+	 * deletes into one block. Events that can not be merged have all rows
+	 * filtered and sorted again once.
+	 * 
+	 * Until the events are processed the sorted rows keep their previous
+	 * order, values are taken from the current rows of the model though.
+	 * Changing the sorting or the row predicate processes the collected events
+	 * first. Events passed to <code>doTableChanged(event)</code> directly are
+	 * never collected.
+	 * 
+	 * @param coalescingDelay
+	 *            New value of property coalescingDelay in milliseconds, 0
+	 *            to process the events once per pass of the event dispatch
+	 *            thread and negative values to process each event at once
+	 * @see #processCoalescedEvents
+	 */
+	public void setCoalescingDelay(int coalescingDelay) {
+		processCoalescedEvents();
+		this.coalescingDelay = Math.max(coalescingDelay, -1);
+	}
+
+	/**
+	 * Get the predicate deciding which rows of the model are shown.
+	 * 
+	 * @return the predicate or <code>null</code> if all rows are shown
+	 */
+	public RowPredicate getRowPredicate() {
+		return rowPredicate;
+	}
+
+	/**
+	 * Set the predicate deciding which rows of the model are shown. The
+	 * predicate is evaluated while the sorted rows are built, so only the
+	 * accepted rows are sorted and counted by <code>getRowCount()</code>.
+	 * Filtered rows have no sorted row number. Rows are filtered again when
+	 * the model reports changes of them. If the result of the predicate
+	 * changes otherwise it has to be set again. Also notifies listeners of
+	 * changes.
+	 * 
+	 * @param rowPredicate
+	 *            the predicate or <code>null</code> to show all rows
+	 * @see #getViewRow
+	 */
+	public void setRowPredicate(RowPredicate rowPredicate) {
+		setRowPredicate(rowPredicate, FILTER_CHANGED);
+	}
+
+	/**
+	 * Set the predicate deciding which rows of the model are shown telling
+	 * how it relates to the previous one. If it is narrowed only the shown
+	 * rows are filtered again. If it is widened only the filtered rows are
+	 * tested and the accepted ones are merged into the shown rows. In both
+	 * cases the shown rows keep their order without being sorted again. Also
+	 * notifies listeners of changes.
+	 * 
+	 * @param rowPredicate
+	 *            the predicate or <code>null</code> to show all rows
+	 * @param change
+	 *            can be FILTER_CHANGED, FILTER_NARROWED or FILTER_WIDENED
+	 * @see #FILTER_CHANGED
+	 * @see #FILTER_NARROWED
+	 * @see #FILTER_WIDENED
+	 */
+	public void setRowPredicate(RowPredicate rowPredicate, int change) {
+		processCoalescedEvents();
+		this.rowPredicate = rowPredicate;
+		clearOrders();
+		if (model == null)
+			return;
+		// while sorting in the background the rows are not in order
+		if (change == FILTER_NARROWED && pendingSort == null)
+			narrowRows();
+		else if (change == FILTER_WIDENED && pendingSort == null)
+			widenRows();
+		else if (startSort(false))
+			fireTableDataChanged();
+	}
+
+	/**
+	 * Remove the shown rows not accepted by <code>rowPredicate</code>
+	 * anymore keeping the order of the others. Notifies listeners of the
+	 * deleted sorted rows.
+	 */
+	private void narrowRows() {
+		int[] deleted = new int[rowCount];
+		int count = 0;
+		int dest = 0;
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortedRow[i];
+			if (isAccepted(row)) {
+				sortedRow[dest++] = row;
+			} else {
+				viewRow[row] = -1;
+				deleted[count++] = i;
+			}
+		}
+		if (count == 0)
+			return;
+		rowCount = dest;
+		updateViewRows(0, rowCount);
+		orderChangeCount++;
+		int[] rows = new int[count];
+		System.arraycopy(deleted, 0, rows, 0, count);
+		fireRowsChanged(rows, TableModelEvent.DELETE,
+				TableModelEvent.ALL_COLUMNS);
+	}
+
+	/**
+	 * Merge the filtered rows now accepted by <code>rowPredicate</code> into
+	 * the shown rows without resorting them. Notifies listeners of the
+	 * inserted sorted rows.
+	 */
+	private void widenRows() {
+		int[] inserted = new int[modelRowCount - rowCount];
+		int count = 0;
+		for (int row = 0; row < modelRowCount; row++) {
+			if (viewRow[row] < 0 && isAccepted(row))
+				inserted[count++] = row;
+		}
+		if (count == 0)
+			return;
+		if (sortColumn != NO_COLUMN)
+			prepareComparator();
+		mergeRows(inserted, count);
+		updateViewRows(0, rowCount);
+		orderChangeCount++;
+		int[] rows = new int[count];
+		for (int i = 0; i < count; i++)
+			rows[i] = viewRow[inserted[i]];
+		fireRowsChanged(rows, TableModelEvent.INSERT,
+				TableModelEvent.ALL_COLUMNS);
+	}
+
+	/**
+	 * Compute an unsigned key whose order is the natural order of the given
+	 * value.
+	 * 
+	 * @param value
+	 *            a non null value of one of <code>PRIMITIVE_KEY_CLASSES</code>
+	 * @return the key for the value
+	 */
+	private static long toPrimitiveKey(Object value) {
+		if (value instanceof Double || value instanceof Float)
+			return RadixSort.toSortableKey(((Number) value).doubleValue());
+		else if (value instanceof Number)
+			return RadixSort.toSortableKey(((Number) value).longValue());
+		else if (value instanceof Date)
+			return RadixSort.toSortableKey(((Date) value).getTime());
+		else
+			return ((Boolean) value).booleanValue() ? 1 : 0;
+	}
+
+	/**
+	 * Check if the decorated model allows fetching the values of the given
+	 * column for all rows before sorting.
+	 * 
+	 * @param column
+	 *            the column to sort by
+	 * @return true if the model is a <code>SortKeyTableModel</code> allowing
+	 *         key extraction for the column
+	 */
+	private boolean isSortKeyExtractable(int column) {
+		return model instanceof SortKeyTableModel
+				&& ((SortKeyTableModel) model).isSortKeyExtractable(column);
+	}
+
+	/**
+	 * Fetch the sort keys of the given column for all shown rows of the
+	 * model. If the column is compared by a <code>Collator</code> its
+	 * <code>CollationKey</code>s are used as sort keys and the given
+	 * comparator is set up to compare them. It has to be prepared again
+	 * before values of the model are compared.
+	 * 
+	 * @param comparator
+	 *            the prepared comparator of the column
+	 * @param column
+	 *            the column to fetch
+	 * @return the sort keys indexed by row number of the original model
+	 */
+	private Object[] extractSortKeys(OrderComparator<Object> comparator,
+			int column) {
+		Comparator<Object> columnComparator = comparator.getComparator();
+		if (!(columnComparator instanceof Collator))
+			return extractSortKeys(column);
+		comparator.setComparator(collationKeyComparator);
+		return getCollationKeys(column, (Collator) columnComparator);
+	}
+
+	/**
+	 * Get the <code>CollationKey</code>s of the given column for all shown
+	 * rows of the model. Keys computed before by an equal collator are
+	 * reused, so a model returning a new <code>Collator</code> for each
+	 * call of <code>getComparator(..)</code> keeps its keys.
+	 * 
+	 * @param column
+	 *            the column to fetch
+	 * @param collator
+	 *            the collator of the column
+	 * @return the keys indexed by row number of the original model
+	 */
+	private CollationKey[] getCollationKeys(int column, Collator collator) {
+		if (collationKeys == null
+				|| collationKeys.length != model.getColumnCount()) {
+			collationKeys = new CollationKey[model.getColumnCount()][];
+			collators = new Collator[model.getColumnCount()];
+		}
+		CollationKey[] keys = collationKeys[column];
+		if (keys == null || keys.length != modelRowCount
+				|| !collator.equals(collators[column])) {
+			keys = new CollationKey[modelRowCount];
+			collationKeys[column] = keys;
+			// a copy is kept in case the collator is modified later
+			collators[column] = (Collator) collator.clone();
+		}
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortedRow[i];
+			if (keys[row] == null) {
+				Object value = model.getValueAt(row, column);
+				if (value != null)
+					keys[row] = collator.getCollationKey(value.toString());
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Drop the cached <code>CollationKey</code>s changed by the given event
+	 * of the model. Keys of inserted rows are left to be computed, keys of
+	 * deleted rows are removed.
+	 * 
+	 * @param tme
+	 *            the event of the model
+	 */
+	private void invalidateCollationKeys(TableModelEvent tme) {
+		if (collationKeys == null)
+			return;
+		int first = tme.getFirstRow();
+		int last = tme.getLastRow();
+		for (int c = 0; c < collationKeys.length; c++) {
+			CollationKey[] keys = collationKeys[c];
+			if (keys == null)
+				continue;
+			if (first < 0 || last < first || keys.length != modelRowCount
+					|| (last >= keys.length
+							&& tme.getType() != TableModelEvent.INSERT)) {
+				collationKeys[c] = null;
+			} else if (tme.getType() == TableModelEvent.INSERT) {
+				int count = last - first + 1;
+				if (first > keys.length) {
+					collationKeys[c] = null;
+					continue;
+				}
+				CollationKey[] moved = new CollationKey[keys.length + count];
+				System.arraycopy(keys, 0, moved, 0, first);
+				System.arraycopy(keys, first, moved, last + 1, keys.length
+						- first);
+				collationKeys[c] = moved;
+			} else if (tme.getType() == TableModelEvent.DELETE) {
+				int count = last - first + 1;
+				CollationKey[] moved = new CollationKey[keys.length - count];
+				System.arraycopy(keys, 0, moved, 0, first);
+				System.arraycopy(keys, last + 1, moved, first, moved.length
+						- first);
+				collationKeys[c] = moved;
+			} else if (tme.getColumn() == TableModelEvent.ALL_COLUMNS
+					|| tme.getColumn() == c) {
+				Arrays.fill(keys, first, last + 1, null);
+			}
+		}
+	}
+
+	/**
+	 * Fetch the values of the given column for all shown rows of the model.
+	 * Filtered rows get no value.
+	 * 
+	 * @param column
+	 *            the column to fetch
+	 * @return the values indexed by row number of the original model
+	 */
+	private Object[] extractSortKeys(int column) {
+		Object[] keys = new Object[modelRowCount];
+		for (int i = 0; i < rowCount; i++) {
+			int row = sortedRow[i];
+			keys[row] = model.getValueAt(row, column);
+		}
+		return keys;
+	}
+
+	/**
+	 * Have the decorator sort the rows by values of given column in given
+	 * order. Also notifies listeners of changes.
+	 * 
+	 * @param columnIndex
+	 *            index of column to sort by. Could be an int &gt;= 0 or NO_COLUMN
+	 * @param order
+	 *            can be ASCENDING or DESCENDING
+	 * @see #NO_COLUMN
+	 * @see #ASCENDING
+	 * @see #DESCENDING
+	 */
+	public void sort(int columnIndex, boolean order) {
+		processCoalescedEvents();
+		if ((columnIndex <= getColumnCount() && columnIndex >= 0)
+				|| columnIndex == NO_COLUMN) {
+
+			boolean mustSort = false;
+			if (columnIndex != sortColumn || secondaryColumns.length > 0)
+				mustSort = true;
+			else if (columnIndex >= 0 && colOrder[columnIndex] != order) {
+				colOrder[columnIndex] = order;
+				if (reorder(true, 0))
+					fireTableDataChanged();
+			}
+
+			if (mustSort) {
+				rememberOrder();
+				sortColumn = columnIndex;
+				secondaryColumns = new int[0];
+				if (sortColumn != NO_COLUMN)
+					colOrder[sortColumn] = order;
+				if (startSort(true))
+					fireTableDataChanged();
+			}
+		}
+	}
+
+	/**
+	 * Have the decorator sort the rows by values of the given columns in the
+	 * given orders. Rows with equal values in the first column are ordered by
+	 * the second column and so on. All columns are evaluated in a single
+	 * sort. Also notifies listeners of changes.
+	 * 
+	 * @param columnIndices
+	 *            indices of the columns to sort by, an empty array for the
+	 *            order of the model
+	 * @param orders
+	 *            the order for each column, ASCENDING or DESCENDING
+	 * @see #ASCENDING
+	 * @see #DESCENDING
+	 */
+	public void sort(int[] columnIndices, boolean[] orders) {
+		if (columnIndices.length != orders.length)
+			throw new IllegalArgumentException(
+					"Need one order for each column");
+		for (int i = 0; i < columnIndices.length; i++) {
+			if (columnIndices[i] < 0 || columnIndices[i] >= getColumnCount()
+					|| indexOf(columnIndices, columnIndices[i]) != i)
+				throw new IllegalArgumentException("Illegal sort column "
+						+ columnIndices[i]);
+		}
+		if (columnIndices.length == 0) {
+			sort(NO_COLUMN, ASCENDING);
+			return;
+		}
+		processCoalescedEvents();
+
+		int[] columns = getSortColumns();
+		int validKeys = 0;
+		while (validKeys < columns.length && validKeys < columnIndices.length
+				&& columns[validKeys] == columnIndices[validKeys]
+				&& colOrder[columns[validKeys]] == orders[validKeys])
+			validKeys++;
+		if (validKeys == columns.length && validKeys == columnIndices.length)
+			return;
+
+		// only the order of the first column changes
+		boolean reverse = (columns.length == columnIndices.length
+				&& columns[0] == columnIndices[0] && validKeys == 0);
+		for (int i = 1; reverse && i < columns.length; i++)
+			reverse = (columns[i] == columnIndices[i])
+					&& (colOrder[columns[i]] == orders[i]);
+
+		sortColumn = columnIndices[0];
+		secondaryColumns = new int[columnIndices.length - 1];
+		System.arraycopy(columnIndices, 1, secondaryColumns, 0,
+				secondaryColumns.length);
+		for (int i = 0; i < columnIndices.length; i++)
+			colOrder[columnIndices[i]] = orders[i];
+
+		if (validKeys < columns.length)
+			validKeys = 0;
+		if (reorder(reverse, validKeys))
+			fireTableDataChanged();
+	}
+
+	/**
+	 * Get the columns the rows are sorted by. The first column is the one
+	 * returned by <code>getSortColumn()</code>, each following column orders
+	 * rows with equal values in the previous ones.
+	 * 
+	 * @return the indices of the sort columns, an empty array if not sorted
+	 * @see #getSortColumn
+	 */
+	public int[] getSortColumns() {
+		if (sortColumn == NO_COLUMN)
+			return new int[0];
+		int[] columns = new int[secondaryColumns.length + 1];
+		columns[0] = sortColumn;
+		System.arraycopy(secondaryColumns, 0, columns, 1,
+				secondaryColumns.length);
+		return columns;
+	}
+
+	/**
+	 * Find the position of a column in an array of columns.
+	 * 
+	 * @param columns
+	 *            the columns to search
+	 * @param column
+	 *            the column to find
+	 * @return the index of the column or -1 if not contained
+	 */
+	private static int indexOf(int[] columns, int column) {
+		return indexOf(columns, columns.length, column);
+	}
+
+	/**
+	 * Find the position of a column in the first entries of an array of
+	 * columns.
+	 * 
+	 * @param columns
+	 *            the columns to search
+	 * @param count
+	 *            the number of entries to search
+	 * @param column
+	 *            the column to find
+	 * @return the index of the column or -1 if not contained
+	 */
+	private static int indexOf(int[] columns, int count, int column) {
+		for (int i = 0; i < count; i++) {
+			if (columns[i] == column)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Remove all columns not present in the model from the given columns.
+	 * 
+	 * @param columns
+	 *            the columns to check
+	 * @return the columns of the model in the same order
+	 */
+	private int[] validColumns(int[] columns) {
+		int count = 0;
+		int[] valid = new int[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] >= 0 && columns[i] < colOrder.length
+					&& columns[i] != sortColumn
+					&& indexOf(valid, count, columns[i]) < 0)
+				valid[count++] = columns[i];
+		}
+		int[] result = new int[count];
+		System.arraycopy(valid, 0, result, 0, count);
+		return result;
+	}
+
+	/**
+	 * Get the column the rows are sorted by.
+	 * 
+	 * @return the index of the sort column or <code>NO_COLUMN</code>
+	 * @see #NO_COLUMN
+	 */
+	public int getSortColumn() {
+		return sortColumn;
+	}
+
+	/**
+	 * Get the order the given column is sorted in when rows are sorted by it.
+	 * 
+	 * @param columnIndex
+	 *            the index of the column
+	 * @return <code>ASCENDING</code> or <code>DESCENDING</code>
+	 * @see #ASCENDING
+	 * @see #DESCENDING
+	 */
+	public boolean getSortOrder(int columnIndex) {
+		return colOrder[columnIndex];
+	}
+
+	/**
+	 * Creates a Memento of the state of this wrapper. This can be used for a
+	 * restauration of the State.
+	 * 
+	 * @return a JavaBean representing the state of the RowSorting Interface.
+	 */
+	public Object getState() {
+		RowSortingState state = new RowSortingState();
+
+		state.setSortCol(sortColumn);
+		state.setSortCols(getSortColumns());
+		if (model != null) {
+			String[] names = new String[model.getColumnCount()];
+			for (int i = 0; i < model.getColumnCount(); i++)
+				names[i] = model.getColumnName(i);
+			state.setColNames(names);
+			state.setColOrder((boolean[]) colOrder.clone());
+		} else {
+			state.setColNames(new String[0]);
+			state.setColOrder(new boolean[0]);
+		}
+		return state;
+	}
+
+	/**
+	 * Resets this wrapper to the given state if the column structure is similar
+	 * to the one present while <code>getState()</code> was called. This method
+	 * must be called with a state object obtained by <code>getState()</code>.
+	 * 
+	 * @param aState
+	 *            the state to set.
+	 * @return true if the column structure was similar and the state has been
+	 *         reset.
+	 * @see #getState
+	 */
+	public boolean setState(Object aState) {
+		processCoalescedEvents();
+		boolean ok = internalSetState(aState);
+		fireTableDataChanged();
+		return ok;
+	}
+
+	/**
+	 * Resets this wrapper to the given state if the column structure is similar
+	 * to the one present while <code>getState()</code> was called. This method
+	 * must be called with a state object obtained by <code>getState()</code>.
+	 * This does not notify event listeners contrary to
+	 * <code>setState(state)</code>. In asynchronous mode the rows are sorted
+	 * in the background.
+	 * 
+	 * @param state
+	 *            the state to set.
+	 * @return true if the column structure was similar and the state has been
+	 *         reset.
+	 * @see #getState
+	 */
+	private boolean internalSetState(Object aState) {
+		if (aState == null)
+			throw new IllegalArgumentException("NULL is not a legal state.");
+		if (!(aState instanceof RowSortingState))
+			throw new IllegalArgumentException(
+					"This was not a legal state obtained with getState()");
+		RowSortingState state = (RowSortingState) aState;
+		if (isSimilar(state)) {
+			rememberOrder();
+			applyState(state);
+			startSort(false);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Take the sort columns and orders from the given state without sorting.
+	 * 
+	 * @param state
+	 *            a state of a similar model
+	 */
+	private void applyState(RowSortingState state) {
+		colOrder = (boolean[]) state.getColOrder().clone();
+		sortColumn = state.getSortCol();
+		secondaryColumns = new int[0];
+		int[] columns = state.getSortCols();
+		if (columns != null && columns.length > 1 && columns[0] == sortColumn) {
+			int[] secondary = new int[columns.length - 1];
+			System.arraycopy(columns, 1, secondary, 0, secondary.length);
+			secondaryColumns = validColumns(secondary);
+		}
+	}
+
+	/**
+	 * Check if the model is similar to the model present at the given state.
+	 * 
+	 * @param state
+	 *            the state to check
+	 * @return true if similar
+	 */
+	private boolean isSimilar(RowSortingState state) {
+		String[] names = state.getColNames();
+		if (names.length != model.getColumnCount())
+			return false;
+		String colName;
+
+		for (int i = 0; i < names.length; i++) {
+			colName = model.getColumnName(i);
+			if (names[i] == null || colName == null) {
+				if (colName != names[i])
+					return false;
+			} else if (!names[i].equals(colName))
+				return false;
+		}
+		return true;
 	}
 
 	/**
@@ -535,7 +3035,7 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	 * @see javax.swing.table.TableModel
 	 */
 	public int getRowCount() {
-		return (model == null) ? 0 : model.getRowCount();
+		return (model == null) ? 0 : rowCount;
 	}
 
 	/**
@@ -545,7 +3045,8 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	 * @see javax.swing.table.TableModel
 	 */
 	public Object getValueAt(int rowIndex, int columnIndex) {
-		return model.getValueAt(getModelRow(rowIndex), columnIndex);
+		int row = getCurrentModelRow(rowIndex);
+		return (row < 0) ? null : model.getValueAt(row, columnIndex);
 	}
 
 	/**
@@ -575,7 +3076,8 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	 * @see javax.swing.table.TableModel
 	 */
 	public boolean isCellEditable(int rowIndex, int columnIndex) {
-		return model.isCellEditable(getModelRow(rowIndex), columnIndex);
+		int row = getCurrentModelRow(rowIndex);
+		return row >= 0 && model.isCellEditable(row, columnIndex);
 	}
 
 	/**
@@ -585,7 +3087,29 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	 * @see javax.swing.table.TableModel
 	 */
 	public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
-		model.setValueAt(aValue, getModelRow(rowIndex), columnIndex);
+		int row = getCurrentModelRow(rowIndex);
+		if (row >= 0)
+			model.setValueAt(aValue, row, columnIndex);
+	}
+
+	/**
+	 * Return the row number the model has now for the sorted row number.
+	 * While events of the model are collected the sorted rows still refer to
+	 * the rows the model had before, so inserts and deletes collected so far
+	 * are taken into account.
+	 * 
+	 * @param row
+	 *            the sorted row number
+	 * @return the current row number in the original model or -1 if the row
+	 *         has been deleted or is not known anymore
+	 * @see #setCoalescingDelay
+	 */
+	private int getCurrentModelRow(int row) {
+		int modelRow = getModelRow(row);
+		if (coalescedEvents == null)
+			return modelRow;
+		modelRow = coalescedEvents.translateRow(modelRow);
+		return (modelRow < model.getRowCount()) ? modelRow : -1;
 	}
 
 	/**
@@ -596,19 +3120,43 @@ public class RowSortingTableModel extends AbstractTableModel implements
 	 * @return the row number in the original model
 	 */
 	public int getModelRow(int row) {
+		if (row >= rowCount)
+			throw new ArrayIndexOutOfBoundsException(row + " >= " + rowCount);
 		return sortedRow[row];
 	}
 
 	/**
-	 * Reinitializes this wrapper and resorts the rows if necessary. Also
-	 * recalculates the row numbers in the <code>TableModelEvent</code> for the
-	 * listeners
+	 * Return the sorted row number for the row number of the original model.
+	 * 
+	 * @param row
+	 *            the row number in the original model
+	 * @return the sorted row number or -1 if the row is filtered
+	 * @see #setRowPredicate
+	 */
+	public int getViewRow(int row) {
+		if (row >= modelRowCount)
+			throw new ArrayIndexOutOfBoundsException(row + " >= "
+					+ modelRowCount);
+		return viewRow[row];
+	}
+
+	/**
+	 * Reinitializes this wrapper and resorts the rows if necessary. Inserted
+	 * and deleted rows are merged into the existing order without resorting.
+	 * Also recalculates the row numbers in the <code>TableModelEvent</code>
+	 * for the listeners, so they are only notified about the sorted rows
+	 * that actually changed. Events caused by delegating the sort to a
+	 * <code>PagedTableModel</code> are ignored, the rows are sorted anyway.
 	 * 
 	 * @param tme
 	 *            the event to process
+	 * @see #setModel(TableModel, boolean)
 	 */
 	void doTableChanged(TableModelEvent tme) {
-		boolean mustSort = false;
+		if (delegating)
+			return;
+		invalidateOrders(tme);
+		invalidateCollationKeys(tme);
 		if (tme.getFirstRow() == TableModelEvent.HEADER_ROW) {
 			Object state = getState();
 			init();
@@ -616,35 +3164,758 @@ public class RowSortingTableModel extends AbstractTableModel implements
 			fireTableStructureChanged();
 			return;
 		}
-		if (tme.getType() == TableModelEvent.INSERT
-				|| tme.getType() == TableModelEvent.DELETE) {
-			initRows();
-			mustSort = true;
+		int first = tme.getFirstRow();
+		int last = tme.getLastRow();
+		// while sorting in the background the rows are not in order
+		boolean sorted = (pendingSort == null);
+		boolean done;
+		if (tme.getType() == TableModelEvent.INSERT) {
+			done = sorted ? insertRows(first, last) : appendRows(first, last);
+		} else if (tme.getType() == TableModelEvent.DELETE) {
+			done = deleteRows(first, last);
+		} else if (modelRowCount != model.getRowCount()) {
+			done = false;
+		} else if (sorted && rowPredicate != null
+				&& isFilterChanged(first, last)) {
+			done = refilterRows(first, last);
+		} else if (sorted && sortColumn != NO_COLUMN
+				&& (tme.getColumn() == TableModelEvent.ALL_COLUMNS
+						|| tme.getColumn() == sortColumn || indexOf(
+						secondaryColumns, tme.getColumn()) >= 0)) {
+			done = updateRows(first, last, tme.getColumn());
+		} else {
+			done = translateUpdate(first, last, tme.getColumn());
 		}
-		if (tme.getColumn() == TableModelEvent.ALL_COLUMNS
-				|| tme.getColumn() == sortColumn) {
-			mustSort = true;
+		if (!done) {
+			// the rows are not in the shown order anymore
+			shownState = null;
+			clearOrders();
+			if (modelRowCount != model.getRowCount())
+				initRows();
+			startSort(false);
+			fireTableDataChanged();
+		} else if (!sorted
+				&& (tme.getType() != TableModelEvent.UPDATE || pendingSort
+						.isAffectedBy(first, last, tme.getColumn()))) {
+			// sort again including the changes
+			if (tme.getType() != TableModelEvent.DELETE)
+				shownState = null;
+			submitSort();
 		}
-		if (mustSort)
-			sort();
-		fireTableDataChanged();
 	}
 
 	/**
-	 * Treats input as two instances of <code>java.lang.Integer</code> that
-	 * identify the to rows to be compared. Returns comparison value depending
-	 * on the value of member <code>sortColum</code>
+	 * Collect the given event of the model to be processed together with the
+	 * following ones. The first event collected schedules their processing.
+	 * 
+	 * @param tme
+	 *            the event to collect
+	 * @see #setCoalescingDelay
+	 */
+	private void coalesceEvent(TableModelEvent tme) {
+		if (coalescedEvents == null) {
+			coalescedEvents = new CoalescedEvents();
+			if (coalescingDelay == 0) {
+				SwingUtilities.invokeLater(eventProcessor);
+			} else {
+				if (coalescingTimer == null) {
+					coalescingTimer = new Timer(coalescingDelay,
+							new ActionListener() {
+
+								/**
+								 * Implementation of
+								 * <code>actionPerformed(e)</code> in the
+								 * interface
+								 * <code>java.awt.event.ActionListener</code>
+								 * processing the collected events of the
+								 * model.
+								 * 
+								 * @param e
+								 *            the event to process
+								 */
+								public void actionPerformed(ActionEvent e) {
+									processCoalescedEvents();
+								}
+							});
+					coalescingTimer.setRepeats(false);
+				}
+				coalescingTimer.setInitialDelay(coalescingDelay);
+				coalescingTimer.restart();
+			}
+		}
+		coalescedEvents.add(tme, model.getRowCount());
+	}
+
+	/**
+	 * Process the events of the model collected so far at once. Deleted and
+	 * inserted rows are merged into the sorted rows, then the updated rows are
+	 * placed anew together. Listeners are notified of the sorted rows that
+	 * changed. Does nothing if no events are collected.
+	 * 
+	 * @see #setCoalescingDelay
+	 */
+	public void processCoalescedEvents() {
+		CoalescedEvents events = coalescedEvents;
+		if (events == null)
+			return;
+		discardCoalescedEvents();
+		if (events.structureChanged) {
+			doTableChanged(new TableModelEvent(model,
+					TableModelEvent.HEADER_ROW));
+			return;
+		}
+		BitSet updated = events.updated;
+		int deleted = (events.deleteFirst < 0) ? 0 : events.deleteLast
+				- events.deleteFirst + 1;
+		int inserted = (events.insertFirst < 0) ? 0 : events.insertLast
+				- events.insertFirst + 1;
+		if (pendingSort != null && !events.dataChanged && deleted == 0
+				&& inserted == 0 && modelRowCount == model.getRowCount()
+				&& !pendingSort.isAffectedBy(updated, events.updatedColumn)) {
+			// the updates do not change the result of the background sort
+			for (int first = updated.nextSetBit(0); first >= 0;) {
+				int last = updated.nextClearBit(first) - 1;
+				doTableChanged(new TableModelEvent(model, first, last,
+						events.updatedColumn));
+				first = updated.nextSetBit(last + 1);
+			}
+			return;
+		}
+		boolean ordered = rowPredicate != null
+				|| (sortColumn != NO_COLUMN && !updated.isEmpty());
+		if (events.dataChanged
+				|| modelRowCount - deleted + inserted != model.getRowCount()
+				|| events.deleteLast >= modelRowCount
+				|| events.insertFirst > modelRowCount
+				|| (pendingSort != null && !updated.isEmpty())
+				|| (ordered && updated.cardinality() > modelRowCount
+						/ MAX_UPDATE_FRACTION + 1)) {
+			// filter and sort all rows again
+			doTableChanged(new TableModelEvent(model));
+			return;
+		}
+		if (deleted > 0)
+			doTableChanged(new TableModelEvent(model, events.deleteFirst,
+					events.deleteLast, TableModelEvent.ALL_COLUMNS,
+					TableModelEvent.DELETE));
+		if (inserted > 0 && updated.isEmpty()) {
+			doTableChanged(new TableModelEvent(model, events.insertFirst,
+					events.insertLast, TableModelEvent.ALL_COLUMNS,
+					TableModelEvent.INSERT));
+		} else if (inserted > 0) {
+			// the updated rows are placed before the inserted ones are merged
+			TableModelEvent tme = new TableModelEvent(model,
+					events.insertFirst, events.insertLast,
+					TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT);
+			invalidateOrders(tme);
+			invalidateCollationKeys(tme);
+			shiftRows(events.insertFirst, inserted);
+			resetViewRows();
+			updateRows(updated, events.updatedColumn);
+			if (sortColumn != NO_COLUMN)
+				prepareComparator();
+			mergeRows(events.insertFirst, events.insertLast);
+			resetViewRows();
+			fireRowsChanged(getViewRows(events.insertFirst, events.insertLast),
+					TableModelEvent.INSERT, TableModelEvent.ALL_COLUMNS);
+		} else if (!updated.isEmpty()) {
+			updateRows(updated, events.updatedColumn);
+		}
+	}
+
+	/** Drop the collected events of the model without processing them */
+	private void discardCoalescedEvents() {
+		coalescedEvents = null;
+		if (coalescingTimer != null)
+			coalescingTimer.stop();
+	}
+
+	/**
+	 * Treats input as the numbers of the two rows of the original model to be
+	 * compared. Returns comparison value depending on the value of member
+	 * <code>sortColum</code>. Uses the extracted sort keys if present.
 	 * 
-	 * @param o1
+	 * @param i1
 	 *            row one to be compared
-	 * @param o2
+	 * @param i2
 	 *            row two to be compared
 	 * @return the result of invocation of compare on the orderComparator with
 	 *         the real objects to compare.
 	 */
-	private int doCompare(Integer i1, Integer i2) {
-		return orderComparator.compare(model.getValueAt(i1, sortColumn),
-				model.getValueAt(i2, sortColumn));
+	private int doCompare(int i1, int i2) {
+		return compareKeys(i1, i2, secondaryColumns.length + 1);
+	}
+
+	/**
+	 * Compare two rows of the model by the values of the first
+	 * <code>keys</code> sort columns, starting with <code>sortColumn</code>
+	 * followed by the <code>secondaryColumns</code>. Uses the extracted sort
+	 * keys if present.
+	 * 
+	 * @param i1
+	 *            row one to be compared
+	 * @param i2
+	 *            row two to be compared
+	 * @param keys
+	 *            the number of sort columns to compare
+	 * @return the result of comparison
+	 */
+	private int compareKeys(int i1, int i2, int keys) {
+		int c;
+		if (sortKeys != null)
+			c = orderComparator.compare(sortKeys[i1], sortKeys[i2]);
+		else if (primitiveKeyColumns[0])
+			c = comparePrimitiveKeys(i1, i2, sortColumn);
+		else
+			c = orderComparator.compare(model.getValueAt(i1, sortColumn),
+					model.getValueAt(i2, sortColumn));
+		if (c == 0)
+			c = compareSecondaryKeys(i1, i2, keys - 1);
+		return c;
+	}
+
+	/**
+	 * Compare two rows of the model by the values of the first
+	 * <code>keys</code> of the <code>secondaryColumns</code>. Uses the
+	 * extracted sort keys if present.
+	 * 
+	 * @param i1
+	 *            row one to be compared
+	 * @param i2
+	 *            row two to be compared
+	 * @param keys
+	 *            the number of secondary columns to compare
+	 * @return the result of comparison
+	 */
+	private int compareSecondaryKeys(int i1, int i2, int keys) {
+		int c = 0;
+		for (int k = 0; c == 0 && k < keys; k++) {
+			OrderComparator<Object> comparator = secondaryComparators[k];
+			Object[] values = (secondaryKeys != null) ? secondaryKeys[k]
+					: null;
+			if (values != null)
+				c = comparator.compare(values[i1], values[i2]);
+			else if (primitiveKeyColumns[k + 1])
+				c = comparePrimitiveKeys(i1, i2, secondaryColumns[k]);
+			else
+				c = comparator.compare(model.getValueAt(i1,
+						secondaryColumns[k]), model.getValueAt(i2,
+						secondaryColumns[k]));
+		}
+		return c;
+	}
+
+	/**
+	 * Compare two rows of the model by the primitive keys of the given
+	 * column in the sort order of the column without fetching any values.
+	 * 
+	 * @param i1
+	 *            row one to be compared
+	 * @param i2
+	 *            row two to be compared
+	 * @param column
+	 *            the column to compare
+	 * @return the result of comparison
+	 */
+	private int comparePrimitiveKeys(int i1, int i2, int column) {
+		PrimitiveKeyTableModel keyModel = (PrimitiveKeyTableModel) model;
+		long k1 = keyModel.getPrimitiveKey(i1, column) ^ Long.MIN_VALUE;
+		long k2 = keyModel.getPrimitiveKey(i2, column) ^ Long.MIN_VALUE;
+		int c = (k1 < k2) ? -1 : ((k1 == k2) ? 0 : 1);
+		return (colOrder[column] == ASCENDING) ? c : -c;
+	}
+
+	/**
+	 * A sort running in the background. The rows are sorted by a separate
+	 * <code>RowSortingTableModel</code> decorating a <code>Snapshot</code>
+	 * of the sort columns. It is created on the calling thread.
+	 */
+	private class SortJob implements Runnable {
+
+		/** Sorts the snapshot */
+		private final RowSortingTableModel sorter = new RowSortingTableModel();
+
+		/** The state of this model the sort was started for */
+		private final RowSortingState state;
+
+		/** The number of comparisons a sort of all rows is expected to need */
+		private final double expected;
+
+		/** Comparisons made so far */
+		private final AtomicLong compared = new AtomicLong();
+
+		/** Set while a progress report waits to be fired */
+		private volatile boolean reportPending = false;
+
+		/** Set if the result is not needed anymore */
+		private volatile boolean cancelled = false;
+
+		/** The rows accepted when the sort was started or null */
+		private AcceptedRows accepted = null;
+
+		SortJob() {
+			state = (RowSortingState) getState();
+			if (rowPredicate != null) {
+				accepted = new AcceptedRows(model, rowPredicate);
+				sorter.rowPredicate = accepted;
+			}
+			// a model sorting itself is asked by the background thread
+			if (isSortedByModel())
+				sorter.setModel(new Snapshot(model, new int[0],
+						(SortableTableModel) model), false);
+			else
+				sorter.setModel(new Snapshot(model, getSortColumns(), null),
+						false);
+			sorter.colOrder = colOrder.clone();
+			sorter.sortColumn = sortColumn;
+			sorter.secondaryColumns = secondaryColumns.clone();
+			sorter.parallelThreshold = parallelThreshold;
+			if (parallelThreshold > 0)
+				sorter.forkJoinPool = getForkJoinPool();
+			sorter.monitor = this;
+			int rows = sorter.rowCount;
+			expected = Math.max(1, rows * Math.log(rows) / Math.log(2));
+		}
+
+		/**
+		 * Check if an update of the rows <code>first</code> to
+		 * <code>last</code> of the model in the given column may change the
+		 * result of this sort. That is the case if the column is a sort
+		 * column or if <code>rowPredicate</code> decides differently about
+		 * one of the rows than when the sort was started. Called on the
+		 * event dispatch thread.
+		 * 
+		 * @param first
+		 *            the first updated row of the model
+		 * @param last
+		 *            the last updated row of the model
+		 * @param column
+		 *            the updated column or <code>ALL_COLUMNS</code>
+		 * @return true if the rows have to be sorted again
+		 */
+		boolean isAffectedBy(int first, int last, int column) {
+			if (column == TableModelEvent.ALL_COLUMNS
+					|| column == sorter.sortColumn
+					|| indexOf(sorter.secondaryColumns, column) >= 0)
+				return true;
+			if (accepted == null)
+				return false;
+			if (first < 0 || last < first || last >= accepted.accepted.length)
+				return true;
+			for (int row = first; row <= last; row++) {
+				if (accepted.accepted[row] != isAccepted(row))
+					return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Check if an update of the given rows of the model in the given
+		 * column may change the result of this sort.
+		 * 
+		 * @param rows
+		 *            the updated rows of the model
+		 * @param column
+		 *            the updated column or <code>ALL_COLUMNS</code>
+		 * @return true if the rows have to be sorted again
+		 * @see #isAffectedBy(int, int, int)
+		 */
+		boolean isAffectedBy(BitSet rows, int column) {
+			for (int first = rows.nextSetBit(0); first >= 0;) {
+				int last = rows.nextClearBit(first) - 1;
+				if (isAffectedBy(first, last, column))
+					return true;
+				first = rows.nextSetBit(last + 1);
+			}
+			return false;
+		}
+
+		/**
+		 * Called by the sorting threads after some comparisons. Reports the
+		 * progress unless a report is still waiting.
+		 * 
+		 * @param count
+		 *            the number of comparisons made since the last call
+		 * @throws CancellationException
+		 *             if the sort has been cancelled
+		 */
+		void compared(int count) {
+			if (cancelled)
+				throw new CancellationException();
+			long done = compared.addAndGet(count);
+			if (!reportPending) {
+				reportPending = true;
+				report(SortProgressEvent.SORTING, Math.min(0.99, done
+						/ expected));
+			}
+		}
+
+		/**
+		 * Fire a progress event on the event dispatch thread unless this sort
+		 * has been replaced meanwhile.
+		 * 
+		 * @param phase
+		 *            the phase of the sort
+		 * @param progress
+		 *            the fraction of the sort done
+		 */
+		private void report(final int phase, final double progress) {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				/**
+				 * Implementation of <code>run()</code> in the interface
+				 * <code>java.lang.Runnable</code>.
+				 */
+				public void run() {
+					reportPending = false;
+					if (SortJob.this == pendingSort)
+						fireSortProgress(phase, progress);
+				}
+			});
+		}
+
+		/**
+		 * Implementation of <code>run()</code> in the interface
+		 * <code>java.lang.Runnable</code>. Sorts the snapshot and hands the
+		 * result to the event dispatch thread.
+		 */
+		public void run() {
+			if (cancelled)
+				return;
+			report(SortProgressEvent.SORTING, 0);
+			try {
+				sorter.sort();
+			} catch (CancellationException e) {
+				return;
+			}
+			if (cancelled)
+				return;
+			SwingUtilities.invokeLater(new Runnable() {
+
+				/**
+				 * Implementation of <code>run()</code> in the interface
+				 * <code>java.lang.Runnable</code>.
+				 */
+				public void run() {
+					finishSort(SortJob.this);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Compares <code>CollationKey</code>s. <code>null</code> is less than
+	 * everything else like in <code>DefaultComparator</code>.
+	 */
+	private static class CollationKeyComparator implements Comparator<Object> {
+
+		/**
+		 * Implementation of <code>compare(o1, o2)</code> in the interface
+		 * <code>java.util.Comparator</code>.
+		 * 
+		 * @param o1
+		 *            the first <code>CollationKey</code> or <code>null</code>
+		 * @param o2
+		 *            the second <code>CollationKey</code> or <code>null</code>
+		 * @return the result of comparison
+		 */
+		public int compare(Object o1, Object o2) {
+			if (o1 == null)
+				return (o2 == null) ? 0 : -1;
+			if (o2 == null)
+				return 1;
+			return ((CollationKey) o1).compareTo((CollationKey) o2);
+		}
+	}
+
+	/**
+	 * Identifies a sort order by the sort columns and their orders.
+	 */
+	private static class OrderKey {
+
+		/** The sort columns in the order they are compared */
+		private final int[] columns;
+
+		/** The order of each of the <code>columns</code> */
+		private final boolean[] orders;
+
+		/**
+		 * Create the key for the given sort columns.
+		 * 
+		 * @param columns
+		 *            the sort columns in the order they are compared
+		 * @param colOrder
+		 *            the order of each column of the model
+		 */
+		OrderKey(int[] columns, boolean[] colOrder) {
+			this.columns = columns.clone();
+			orders = new boolean[columns.length];
+			for (int i = 0; i < columns.length; i++)
+				orders[i] = colOrder[columns[i]];
+		}
+
+		/**
+		 * Overrides <code>equals(obj)</code> in <code>Object</code>.
+		 * 
+		 * @param obj
+		 *            the object to compare with
+		 * @return true if obj is a key for the same sort order
+		 */
+		public boolean equals(Object obj) {
+			if (!(obj instanceof OrderKey))
+				return false;
+			OrderKey key = (OrderKey) obj;
+			return Arrays.equals(columns, key.columns)
+					&& Arrays.equals(orders, key.orders);
+		}
+
+		/**
+		 * Overrides <code>hashCode()</code> in <code>Object</code>.
+		 * 
+		 * @return a hash code of the sort order
+		 */
+		public int hashCode() {
+			return Arrays.hashCode(columns) * 31 + Arrays.hashCode(orders);
+		}
+	}
+
+	/**
+	 * Holds the sorted rows of at most <code>permutationCacheSize</code>
+	 * sort orders dropping the least recently used one first.
+	 */
+	private class PermutationCache extends LinkedHashMap<OrderKey, int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		PermutationCache() {
+			super(16, 0.75f, true);
+		}
+
+		/**
+		 * Overrides <code>removeEldestEntry(eldest)</code> in
+		 * <code>LinkedHashMap</code>.
+		 * 
+		 * @param eldest
+		 *            the least recently used entry
+		 * @return true if there are more entries than allowed
+		 */
+		protected boolean removeEldestEntry(Map.Entry<OrderKey, int[]> eldest) {
+			return size() > permutationCacheSize;
+		}
+	}
+
+	/**
+	 * The result of a <code>RowPredicate</code> for all rows of a model
+	 * evaluated in advance, so that the predicate can be applied to a
+	 * <code>Snapshot</code> of the model.
+	 */
+	private static class AcceptedRows implements RowPredicate {
+
+		/** Tells for each row if it is accepted */
+		private final boolean[] accepted;
+
+		/**
+		 * Evaluate the given predicate for all rows of the given model.
+		 * 
+		 * @param model
+		 *            the model whose rows are filtered
+		 * @param predicate
+		 *            the predicate to evaluate
+		 */
+		AcceptedRows(TableModel model, RowPredicate predicate) {
+			accepted = new boolean[model.getRowCount()];
+			for (int i = 0; i < accepted.length; i++)
+				accepted[i] = predicate.accept(model, i);
+		}
+
+		/**
+		 * Implementation of <code>accept(model, row)</code> in the interface
+		 * <code>de.tkuhn.swing.table.RowPredicate</code>.
+		 * 
+		 * @param model
+		 *            the model containing the row
+		 * @param row
+		 *            the row number in the model
+		 * @return the result of the predicate for the row
+		 */
+		public boolean accept(TableModel model, int row) {
+			return accepted[row];
+		}
+	}
+
+	/**
+	 * A copy of the values of some columns of a model. Other columns have no
+	 * values. Column classes and comparators are those of the model.
+	 */
+	private static class Snapshot extends AbstractTableModel implements
+			PrimitiveKeyTableModel, SortableTableModel {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The number of rows */
+		private final int rowCount;
+
+		/** The values of each column indexed by row or null */
+		private final Object[][] values;
+
+		/** The class of each column */
+		private final Class<?>[] classes;
+
+		/** The comparator of each column or null */
+		private final Comparator<?>[] comparators;
+
+		/** The primitive keys of each column indexed by row or null */
+		private final long[][] primitiveKeys;
+
+		/** The model providing the sorted rows or null */
+		private final SortableTableModel sortingModel;
+
+		/**
+		 * Copy the given columns of the given model.
+		 * 
+		 * @param model
+		 *            the model to copy
+		 * @param columns
+		 *            the columns to copy the values of
+		 * @param sortingModel
+		 *            the model providing the sorted rows or null
+		 */
+		Snapshot(TableModel model, int[] columns,
+				SortableTableModel sortingModel) {
+			this.sortingModel = sortingModel;
+			rowCount = model.getRowCount();
+			int columnCount = model.getColumnCount();
+			values = new Object[columnCount][];
+			classes = new Class<?>[columnCount];
+			comparators = new Comparator<?>[columnCount];
+			primitiveKeys = new long[columnCount][];
+			for (int c = 0; c < columnCount; c++) {
+				classes[c] = model.getColumnClass(c);
+				if (model instanceof ComparatorTableModel)
+					comparators[c] = ((ComparatorTableModel) model)
+							.getComparator(c);
+			}
+			for (int k = 0; k < columns.length; k++) {
+				// columns with primitive keys are never compared by value
+				if (model instanceof PrimitiveKeyTableModel
+						&& ((PrimitiveKeyTableModel) model)
+								.isPrimitiveKeyAvailable(columns[k])) {
+					long[] keys = new long[rowCount];
+					for (int i = 0; i < rowCount; i++)
+						keys[i] = ((PrimitiveKeyTableModel) model)
+								.getPrimitiveKey(i, columns[k]);
+					primitiveKeys[columns[k]] = keys;
+				} else {
+					Object[] column = new Object[rowCount];
+					for (int i = 0; i < rowCount; i++)
+						column[i] = model.getValueAt(i, columns[k]);
+					values[columns[k]] = column;
+				}
+			}
+		}
+
+		/**
+		 * Implements <code>getRowCount()</code> in the interface
+		 * <code>TableModel</code>.
+		 * 
+		 * @see javax.swing.table.TableModel
+		 */
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		/**
+		 * Implements <code>getColumnCount()</code> in the interface
+		 * <code>TableModel</code>.
+		 * 
+		 * @see javax.swing.table.TableModel
+		 */
+		public int getColumnCount() {
+			return values.length;
+		}
+
+		/**
+		 * Implements <code>getValueAt(rowIndex, columnIndex)</code> in the interface
+		 * <code>TableModel</code>.
+		 * 
+		 * @see javax.swing.table.TableModel
+		 */
+		public Object getValueAt(int rowIndex, int columnIndex) {
+			return (values[columnIndex] == null) ? null
+					: values[columnIndex][rowIndex];
+		}
+
+		/**
+		 * Implements <code>getColumnClass(columnIndex)</code> in the interface
+		 * <code>TableModel</code>.
+		 * 
+		 * @see javax.swing.table.TableModel
+		 */
+		public Class<?> getColumnClass(int columnIndex) {
+			return classes[columnIndex];
+		}
+
+		/**
+		 * Implements <code>getComparator(columnIndex)</code> in the interface
+		 * <code>ComparatorTableModel</code>.
+		 * 
+		 * @see de.tkuhn.swing.table.ComparatorTableModel
+		 */
+		public Comparator<?> getComparator(int columnIndex) {
+			return comparators[columnIndex];
+		}
+
+		/**
+		 * Implements <code>isSortKeyExtractable(columnIndex)</code> in the interface
+		 * <code>SortKeyTableModel</code>.
+		 * 
+		 * @see de.tkuhn.swing.table.SortKeyTableModel
+		 */
+		public boolean isSortKeyExtractable(int columnIndex) {
+			return true;
+		}
+
+		/**
+		 * Implements <code>isPrimitiveKeyAvailable(columnIndex)</code> in the
+		 * interface <code>PrimitiveKeyTableModel</code>.
+		 * 
+		 * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+		 */
+		public boolean isPrimitiveKeyAvailable(int columnIndex) {
+			return primitiveKeys[columnIndex] != null;
+		}
+
+		/**
+		 * Implements <code>getPrimitiveKey(rowIndex, columnIndex)</code> in
+		 * the interface <code>PrimitiveKeyTableModel</code>.
+		 * 
+		 * @see de.tkuhn.swing.table.PrimitiveKeyTableModel
+		 */
+		public long getPrimitiveKey(int rowIndex, int columnIndex) {
+			return primitiveKeys[columnIndex][rowIndex];
+		}
+
+		/**
+		 * Implements <code>isSortable(columns, orders)</code> in the
+		 * interface <code>SortableTableModel</code>. The snapshot is only
+		 * sorted by the sort columns it was taken for.
+		 * 
+		 * @see de.tkuhn.swing.table.SortableTableModel
+		 */
+		public boolean isSortable(int[] columns, boolean[] orders) {
+			return sortingModel != null;
+		}
+
+		/**
+		 * Implements <code>getSortedRows(columns, orders)</code> in the
+		 * interface <code>SortableTableModel</code> asking the model the
+		 * snapshot was taken of.
+		 * 
+		 * @see de.tkuhn.swing.table.SortableTableModel
+		 */
+		public RowCursor getSortedRows(int[] columns, boolean[] orders) {
+			return sortingModel.getSortedRows(columns, orders);
+		}
 	}
 
 }
@@ -0,0 +1,122 @@
+/*
+ * RowSource.java
+ *
+ * Created on 17. Oktober 2026, 16:05
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+/**
+ * Supplies the rows of a <code>PagedTableModel</code> in blocks, e.g. from
+ * a database query or a file too large to be held in memory. The rows are
+ * numbered in the current order of the source. A source may be able to
+ * order its rows by some columns itself, e.g. by an <code>ORDER BY</code>
+ * clause using an index.
+ * 
+ * <code>fetchRows(..)</code> is called by a background thread if the model
+ * prefetches rows, so it has to be thread safe. All other methods are only
+ * called on the event dispatch thread.
+ * 
+ * @see de.tkuhn.swing.table.PagedTableModel
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface RowSource {
+
+	/**
+	 * Returns the number of rows of the source.
+	 * 
+	 * @return the number of rows
+	 */
+	public int getRowCount();
+
+	/**
+	 * Returns the number of columns of the source.
+	 * 
+	 * @return the number of columns
+	 */
+	public int getColumnCount();
+
+	/**
+	 * Returns the name of a column.
+	 * 
+	 * @param column
+	 *            the column in question
+	 * @return the name of the column
+	 */
+	public String getColumnName(int column);
+
+	/**
+	 * Returns the most specific superclass of all values of a column.
+	 * 
+	 * @param column
+	 *            the column in question
+	 * @return the class of the values of the column
+	 */
+	public Class<?> getColumnClass(int column);
+
+	/**
+	 * Fetches the rows <code>first</code> to
+	 * <code>first + count - 1</code> in the current order of the source.
+	 * 
+	 * @param first
+	 *            the number of the first row to fetch
+	 * @param count
+	 *            the number of rows to fetch
+	 * @return an array holding the values of each fetched row indexed by
+	 *         column
+	 */
+	public Object[][] fetchRows(int first, int count);
+
+	/**
+	 * Tells if the source can order its rows by the given column.
+	 * 
+	 * @param column
+	 *            the column in question
+	 * @return true if the column may be passed to <code>sort(..)</code>
+	 */
+	public boolean isSortable(int column);
+
+	/**
+	 * Orders the rows of the source by the given columns. Rows with equal
+	 * values in the first column are ordered by the second one and so on.
+	 * The rows must be ordered like a <code>RowSortingTableModel</code>
+	 * would order them. An empty array of columns restores the natural
+	 * order of the source.
+	 * 
+	 * @param columns
+	 *            the sortable columns to order by
+	 * @param orders
+	 *            the order for each column, <code>ASCENDING</code> or
+	 *            <code>DESCENDING</code>
+	 * @see de.tkuhn.swing.table.RowSortingTableModel#ASCENDING
+	 */
+	public void sort(int[] columns, boolean[] orders);
+
+}
@@ -0,0 +1,67 @@
+/*
+ * SortKeyTableModel.java
+ *
+ * Created on 17. Oktober 2026, 10:05
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+/**
+ * This adds a method to <code>ComparatorTableModel</code> that allows a
+ * <code>RowSortingTableModel</code> to fetch all values of a column once
+ * before sorting instead of calling <code>getValueAt(row, col)</code> for
+ * every single comparison.
+ *
+ * Models whose values are expensive to compute should allow key extraction
+ * for their columns. Models that cannot tolerate being read completely at
+ * once should not.
+ *
+ * If the <code>Comparator</code> of an extractable column is a
+ * <code>java.text.Collator</code> the <code>CollationKey</code> of each value
+ * is computed once and kept until the model reports a change of the value.
+ *
+ * @see de.tkuhn.swing.table.ComparatorTableModel
+ * @see de.tkuhn.swing.table.RowSortingTableModel
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface SortKeyTableModel extends ComparatorTableModel {
+
+	/**
+	 * Returns if the values of the column <code>columnIndex</code> may be
+	 * fetched eagerly for all rows when the model is sorted by that column.
+	 *
+	 * @param columnIndex
+	 *            the column number in question
+	 * @return <code>true</code> if the values of the column may be extracted
+	 *         as sort keys before sorting.
+	 */
+	public boolean isSortKeyExtractable(int columnIndex);
+
+}
@@ -0,0 +1,130 @@
+/*
+ * SortProgressEvent.java
+ *
+ * Created on 17. Oktober 2026, 16:42
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.EventObject;
+
+/**
+ * Describes the progress of a background sort of a
+ * <code>RowSortingTableModel</code>. Each sort passes through the phases
+ * <code>EXTRACTING</code>, <code>SORTING</code> and <code>PUBLISHING</code>
+ * and ends with <code>FINISHED</code> or <code>CANCELLED</code>. The event
+ * can be used to cancel the sort.
+ * 
+ * @see de.tkuhn.swing.table.SortProgressListener
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public class SortProgressEvent extends EventObject {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The values of the sort columns are fetched from the model */
+	public static final int EXTRACTING = 0;
+
+	/** The rows are sorted in the background */
+	public static final int SORTING = 1;
+
+	/** The sorted rows replace the shown ones */
+	public static final int PUBLISHING = 2;
+
+	/** The sort has finished and its result is shown */
+	public static final int FINISHED = 3;
+
+	/** The sort has been cancelled or replaced by another one */
+	public static final int CANCELLED = 4;
+
+	/** The phase of the sort */
+	private final int phase;
+
+	/** The fraction of the sort that has been done */
+	private final double progress;
+
+	/**
+	 * Creates a new instance of SortProgressEvent.
+	 * 
+	 * @param source
+	 *            the model doing the sort
+	 * @param phase
+	 *            the phase of the sort
+	 * @param progress
+	 *            the fraction of the sort done between 0 and 1
+	 */
+	public SortProgressEvent(RowSortingTableModel source, int phase,
+			double progress) {
+		super(source);
+		this.phase = phase;
+		this.progress = progress;
+	}
+
+	/**
+	 * Get the phase of the sort.
+	 * 
+	 * @return one of <code>EXTRACTING</code>, <code>SORTING</code>,
+	 *         <code>PUBLISHING</code>, <code>FINISHED</code> or
+	 *         <code>CANCELLED</code>
+	 */
+	public int getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Get the fraction of the sort that has been done. The progress while
+	 * sorting is estimated from the number of comparisons made.
+	 * 
+	 * @return a value between 0 and 1
+	 */
+	public double getProgress() {
+		return progress;
+	}
+
+	/**
+	 * Is the sort over?
+	 * 
+	 * @return true if the phase is <code>FINISHED</code> or
+	 *         <code>CANCELLED</code>
+	 */
+	public boolean isDone() {
+		return phase == FINISHED || phase == CANCELLED;
+	}
+
+	/**
+	 * Cancel the sort. The rows keep the order they are shown in.
+	 * 
+	 * @see RowSortingTableModel#cancelSort
+	 */
+	public void cancel() {
+		((RowSortingTableModel) getSource()).cancelSort();
+	}
+
+}
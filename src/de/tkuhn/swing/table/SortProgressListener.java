@@ -0,0 +1,57 @@
+/*
+ * SortProgressListener.java
+ *
+ * Created on 17. Oktober 2026, 16:40
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+import java.util.EventListener;
+
+/**
+ * The listener interface for receiving notifications about the progress of
+ * background sorts of a <code>RowSortingTableModel</code>.
+ * 
+ * @see de.tkuhn.swing.table.SortProgressEvent
+ * @see de.tkuhn.swing.table.RowSortingTableModel#setAsynchronous
+ * 
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface SortProgressListener extends EventListener {
+
+	/**
+	 * Invoked on the event dispatch thread when a background sort has entered
+	 * a new phase or made progress.
+	 * 
+	 * @param e
+	 *            a <code>SortProgressEvent</code> describing the progress
+	 */
+	public void sortProgress(SortProgressEvent e);
+
+}
@@ -0,0 +1,82 @@
+/*
+ * SortableTableModel.java
+ *
+ * Created on 17. Oktober 2026, 17:00
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.swing.table;
+
+/**
+ * This adds methods to <code>ComparatorTableModel</code> that let a model
+ * deliver its rows in sorted order itself, e.g. from a database
+ * <code>ORDER BY</code> using an index or from a pre-sorted column file. A
+ * <code>RowSortingTableModel</code> takes the rows from the model instead
+ * of sorting them whenever the model can sort by the sort columns.
+ *
+ * The rows must be in the order the <code>Comparator</code>s of the
+ * columns define, or the order of <code>DefaultComparator</code> for columns
+ * without one, since inserted and updated rows are still placed by comparing
+ * them. In asynchronous mode the rows are requested by a background thread.
+ *
+ * @see de.tkuhn.swing.table.RowCursor
+ * @see de.tkuhn.swing.table.RowSortingTableModel#setAsynchronous
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface SortableTableModel extends ComparatorTableModel {
+
+	/**
+	 * Returns if the model can deliver its rows sorted by the given columns.
+	 *
+	 * @param columns
+	 *            the columns to sort by, rows with equal values in the first
+	 *            column are ordered by the second one and so on
+	 * @param orders
+	 *            the order for each column, <code>ASCENDING</code> or
+	 *            <code>DESCENDING</code>
+	 * @return <code>true</code> if <code>getSortedRows(..)</code> may be
+	 *         called for the columns
+	 * @see de.tkuhn.swing.table.RowSortingTableModel#ASCENDING
+	 */
+	public boolean isSortable(int[] columns, boolean[] orders);
+
+	/**
+	 * Returns a cursor over all rows of the model sorted by the given
+	 * columns. Each row must be delivered exactly once.
+	 *
+	 * @param columns
+	 *            the columns to sort by
+	 * @param orders
+	 *            the order for each column
+	 * @return a cursor delivering the sorted rows
+	 * @see de.tkuhn.swing.table.ArrayRowCursor
+	 */
+	public RowCursor getSortedRows(int[] columns, boolean[] orders);
+
+}
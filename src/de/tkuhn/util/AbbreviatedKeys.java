@@ -0,0 +1,131 @@
+/*
+ * AbbreviatedKeys.java
+ *
+ * Created on 17. Oktober 2026, 18:10
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.util;
+
+/**
+ * Abbreviated keys of <code>String</code>s for sorting by primitive values.
+ * The key of a string packs its first four characters into a
+ * <code>long</code>, so that the unsigned order of two keys is the order of
+ * <code>String.compareTo(String)</code> whenever the keys differ. Only strings
+ * with equal keys have to be compared completely.
+ *
+ * Strings sharing a common prefix, like paths or identifiers, can be keyed by
+ * the characters following that prefix using an offset.
+ *
+ * @see de.tkuhn.util.RadixSort
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public final class AbbreviatedKeys {
+
+	/** Number of characters packed into a key */
+	public static final int CHARS = 4;
+
+	/** No instances */
+	private AbbreviatedKeys() {
+	}
+
+	/**
+	 * Computes the key of the first characters of the given string.
+	 *
+	 * @param value
+	 *            the string to compute the key for
+	 * @return the unsigned key of the string
+	 */
+	public static long toSortableKey(String value) {
+		return toSortableKey(value, 0);
+	}
+
+	/**
+	 * Computes the key of the characters of the given string starting at
+	 * <code>offset</code>. Missing characters are taken as 0, so a string is
+	 * never keyed greater than a longer one it is a prefix of. The keys of
+	 * strings sharing the first <code>offset</code> characters are ordered
+	 * like the strings if they differ.
+	 *
+	 * @param value
+	 *            the string to compute the key for
+	 * @param offset
+	 *            the number of leading characters to skip
+	 * @return the unsigned key of the string
+	 */
+	public static long toSortableKey(String value, int offset) {
+		long key = 0;
+		int end = Math.min(value.length(), offset + CHARS);
+		for (int i = offset; i < end; i++)
+			key = (key << 16) | value.charAt(i);
+		return key << (16 * (offset + CHARS - Math.max(end, offset)));
+	}
+
+	/**
+	 * Compares two strings like <code>s1.compareTo(s2)</code> using their
+	 * keys first. The strings are only compared if their keys are equal.
+	 *
+	 * @param s1
+	 *            the first string
+	 * @param key1
+	 *            the key of the first string
+	 * @param s2
+	 *            the second string
+	 * @param key2
+	 *            the key of the second string computed with the same offset
+	 * @return a negative integer, zero, or a positive integer as the first
+	 *         string is less than, equal to, or greater than the second.
+	 */
+	public static int compare(String s1, long key1, String s2, long key2) {
+		if (key1 != key2)
+			return ((key1 ^ Long.MIN_VALUE) < (key2 ^ Long.MIN_VALUE)) ? -1 : 1;
+		return s1.compareTo(s2);
+	}
+
+	/**
+	 * Computes the number of leading characters two strings have in common.
+	 *
+	 * @param s1
+	 *            the first string
+	 * @param s2
+	 *            the second string
+	 * @param max
+	 *            the maximum number of characters to compare
+	 * @return the length of the common prefix but at most <code>max</code>
+	 */
+	public static int commonPrefixLength(String s1, String s2, int max) {
+		int length = Math.min(max, Math.min(s1.length(), s2.length()));
+		for (int i = 0; i < length; i++) {
+			if (s1.charAt(i) != s2.charAt(i))
+				return i;
+		}
+		return length;
+	}
+
+}
@@ -0,0 +1,458 @@
+/*
+ * ExternalSort.java
+ *
+ * Created on 17. Oktober 2026, 20:15
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts the numbers of elements by their keys in bounded memory. The
+ * elements are sorted in runs of limited length using
+ * <code>RadixSort</code>. If there is more than one run, the runs are
+ * written to temporary files together with their keys and merged in a
+ * single k-way merge. The sorted element numbers are written to an output
+ * file as big endian <code>int</code> values, ready to be mapped into
+ * memory.
+ *
+ * Files are read and written through <code>FileChannel</code>s. The memory
+ * needed is about <code>(8 * keyCount + 24)</code> bytes per element of a
+ * run plus the buffers of the merge. The sort is stable.
+ *
+ * @see de.tkuhn.util.KeySource
+ * @see de.tkuhn.util.RadixSort
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public final class ExternalSort {
+
+	/** Size in bytes of the buffer used to write a file */
+	private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+	/** Size in bytes of all buffers used to read the runs while merging */
+	private static final int MERGE_BUFFER_SIZE = 1 << 24;
+
+	/** The minimum number of records buffered per run while merging */
+	private static final int MIN_BUFFERED_RECORDS = 64;
+
+	/** No instances */
+	private ExternalSort() {
+	}
+
+	/**
+	 * Sorts the elements <code>0</code> to <code>elementCount - 1</code> by
+	 * their keys and writes their numbers in sorted order to the output
+	 * file. Elements with equal keys keep their order.
+	 *
+	 * @param source
+	 *            the keys of the elements
+	 * @param elementCount
+	 *            the number of elements
+	 * @param keyCount
+	 *            the number of keys of each element
+	 * @param runLength
+	 *            the maximum number of elements sorted in memory at once
+	 * @param directory
+	 *            the directory for the temporary files of the runs or
+	 *            <code>null</code> for the default temporary directory
+	 * @param output
+	 *            the file to write the sorted element numbers to
+	 * @throws IOException
+	 *             if a file can not be written or read
+	 */
+	public static void sort(KeySource source, int elementCount, int keyCount,
+			int runLength, File directory, File output) throws IOException {
+		if (elementCount < 0 || keyCount < 0 || runLength <= 0)
+			throw new IllegalArgumentException("Illegal sort of "
+					+ elementCount + " elements with " + keyCount
+					+ " keys in runs of " + runLength);
+		int length = Math.min(runLength, elementCount);
+		int[] elements = new int[length];
+		long[][] keys = new long[keyCount][length];
+		long[] passKeys = new long[length];
+		int[] work = new int[length];
+		long[] keyWork = new long[length];
+		if (elementCount <= runLength) {
+			sortRun(source, 0, length, elements, keys, passKeys, work,
+					keyWork);
+			writeElements(output, elements, length);
+			return;
+		}
+
+		List<File> runs = new ArrayList<File>();
+		try {
+			for (int start = 0; start < elementCount; start += runLength) {
+				length = Math.min(runLength, elementCount - start);
+				sortRun(source, start, length, elements, keys, passKeys,
+						work, keyWork);
+				File run = File.createTempFile("run", ".tmp", directory);
+				runs.add(run);
+				writeRun(run, start, elements, keys, length);
+			}
+			elements = null;
+			keys = null;
+			passKeys = null;
+			work = null;
+			keyWork = null;
+			merge(runs, keyCount, output);
+		} finally {
+			for (int i = 0; i < runs.size(); i++)
+				runs.get(i).delete();
+		}
+	}
+
+	/**
+	 * Fetch the keys of the elements <code>start</code> to
+	 * <code>start + length - 1</code> and sort the elements by radix sorting
+	 * them by each key, starting with the last one.
+	 *
+	 * @param source
+	 *            the keys of the elements
+	 * @param start
+	 *            the first element of the run
+	 * @param length
+	 *            the number of elements of the run
+	 * @param elements
+	 *            receives the sorted elements relative to <code>start</code>
+	 * @param keys
+	 *            receives the keys of the elements relative to
+	 *            <code>start</code>
+	 * @param passKeys
+	 *            work array for the keys sorted in one pass
+	 * @param work
+	 *            work array for the elements
+	 * @param keyWork
+	 *            work array for the keys
+	 */
+	private static void sortRun(KeySource source, int start, int length,
+			int[] elements, long[][] keys, long[] passKeys, int[] work,
+			long[] keyWork) {
+		for (int i = 0; i < length; i++)
+			elements[i] = i;
+		for (int k = 0; k < keys.length; k++) {
+			long[] column = keys[k];
+			for (int i = 0; i < length; i++)
+				column[i] = source.getKey(start + i, k);
+		}
+		for (int k = keys.length - 1; k >= 0; k--) {
+			long[] column = keys[k];
+			for (int i = 0; i < length; i++)
+				passKeys[i] = column[elements[i]];
+			RadixSort.sort(elements, passKeys, 0, length, work, keyWork);
+		}
+	}
+
+	/**
+	 * Write the given elements to a file as big endian <code>int</code>
+	 * values.
+	 *
+	 * @param file
+	 *            the file to write
+	 * @param elements
+	 *            the elements to write
+	 * @param length
+	 *            the number of elements to write
+	 * @throws IOException
+	 *             if the file can not be written
+	 */
+	private static void writeElements(File file, int[] elements, int length)
+			throws IOException {
+		FileChannel channel = new FileOutputStream(file).getChannel();
+		try {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+			for (int i = 0; i < length; i++) {
+				if (buffer.remaining() < 4)
+					flush(channel, buffer);
+				buffer.putInt(elements[i]);
+			}
+			flush(channel, buffer);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Write a sorted run to a file. Each record holds the keys of an element
+	 * followed by its number.
+	 *
+	 * @param file
+	 *            the file to write
+	 * @param start
+	 *            the first element of the run
+	 * @param elements
+	 *            the sorted elements relative to <code>start</code>
+	 * @param keys
+	 *            the keys of the elements relative to <code>start</code>
+	 * @param length
+	 *            the number of elements of the run
+	 * @throws IOException
+	 *             if the file can not be written
+	 */
+	private static void writeRun(File file, int start, int[] elements,
+			long[][] keys, int length) throws IOException {
+		int recordSize = 8 * keys.length + 4;
+		FileChannel channel = new FileOutputStream(file).getChannel();
+		try {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(
+					WRITE_BUFFER_SIZE, recordSize));
+			for (int i = 0; i < length; i++) {
+				if (buffer.remaining() < recordSize)
+					flush(channel, buffer);
+				int element = elements[i];
+				for (int k = 0; k < keys.length; k++)
+					buffer.putLong(keys[k][element]);
+				buffer.putInt(start + element);
+			}
+			flush(channel, buffer);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Write the contents of the buffer to the channel and clear it.
+	 *
+	 * @param channel
+	 *            the channel to write to
+	 * @param buffer
+	 *            the buffer to write
+	 * @throws IOException
+	 *             if the channel can not be written
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer)
+			throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Merge the sorted runs into the output file. The runs are kept in a
+	 * heap ordered by their current records. Records with equal keys are
+	 * taken from the earlier run first, which keeps the sort stable.
+	 *
+	 * @param files
+	 *            the files of the runs in the order of their elements
+	 * @param keyCount
+	 *            the number of keys of each element
+	 * @param output
+	 *            the file to write the sorted element numbers to
+	 * @throws IOException
+	 *             if a file can not be written or read
+	 */
+	private static void merge(List<File> files, int keyCount, File output)
+			throws IOException {
+		int recordSize = 8 * keyCount + 4;
+		int buffered = Math.max(MIN_BUFFERED_RECORDS, MERGE_BUFFER_SIZE
+				/ files.size() / recordSize);
+		Run[] heap = new Run[files.size()];
+		int size = 0;
+		FileChannel out = new FileOutputStream(output).getChannel();
+		try {
+			for (int i = 0; i < files.size(); i++) {
+				Run run = new Run(files.get(i), i, keyCount, buffered
+						* recordSize);
+				heap[size++] = run;
+				if (run.next())
+					siftUp(heap, size - 1);
+				else
+					heap[--size].close();
+			}
+			ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+			while (size > 0) {
+				Run run = heap[0];
+				if (buffer.remaining() < 4)
+					flush(out, buffer);
+				buffer.putInt(run.element);
+				if (!run.next()) {
+					run.close();
+					heap[0] = heap[--size];
+				}
+				siftDown(heap, size);
+			}
+			flush(out, buffer);
+		} finally {
+			for (int i = 0; i < size; i++)
+				heap[i].close();
+			out.close();
+		}
+	}
+
+	/**
+	 * Move the run at the given position of the heap up to its place.
+	 *
+	 * @param heap
+	 *            the runs ordered as a heap
+	 * @param pos
+	 *            the position of the run to move
+	 */
+	private static void siftUp(Run[] heap, int pos) {
+		Run run = heap[pos];
+		while (pos > 0) {
+			int parent = (pos - 1) >>> 1;
+			if (heap[parent].compareTo(run) <= 0)
+				break;
+			heap[pos] = heap[parent];
+			pos = parent;
+		}
+		heap[pos] = run;
+	}
+
+	/**
+	 * Move the run at the top of the heap down to its place.
+	 *
+	 * @param heap
+	 *            the runs ordered as a heap
+	 * @param size
+	 *            the number of runs in the heap
+	 */
+	private static void siftDown(Run[] heap, int size) {
+		if (size == 0)
+			return;
+		Run run = heap[0];
+		int pos = 0;
+		while (true) {
+			int child = 2 * pos + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0)
+				child++;
+			if (run.compareTo(heap[child]) <= 0)
+				break;
+			heap[pos] = heap[child];
+			pos = child;
+		}
+		heap[pos] = run;
+	}
+
+	/** A sorted run read record by record through a buffer while merging */
+	private static class Run {
+
+		/** The channel of the file of the run */
+		private final FileChannel channel;
+
+		/** The position of the run among all runs */
+		private final int index;
+
+		/** Holds the records read but not yet taken */
+		private final ByteBuffer buffer;
+
+		/** The keys of the current record */
+		final long[] keys;
+
+		/** The element of the current record */
+		int element;
+
+		/**
+		 * Open the given file of a run.
+		 *
+		 * @param file
+		 *            the file of the run
+		 * @param index
+		 *            the position of the run among all runs
+		 * @param keyCount
+		 *            the number of keys of each record
+		 * @param bufferSize
+		 *            the size of the read buffer in bytes
+		 * @throws IOException
+		 *             if the file can not be opened
+		 */
+		Run(File file, int index, int keyCount, int bufferSize)
+				throws IOException {
+			this.channel = new FileInputStream(file).getChannel();
+			this.index = index;
+			this.keys = new long[keyCount];
+			this.buffer = ByteBuffer.allocateDirect(bufferSize);
+			buffer.flip();
+		}
+
+		/**
+		 * Read the next record.
+		 *
+		 * @return false if the run is exhausted
+		 * @throws IOException
+		 *             if the file can not be read
+		 */
+		boolean next() throws IOException {
+			int recordSize = 8 * keys.length + 4;
+			if (buffer.remaining() < recordSize) {
+				buffer.compact();
+				while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+					// fill the buffer until it is full or the run ends
+				}
+				buffer.flip();
+				if (buffer.remaining() < recordSize)
+					return false;
+			}
+			for (int k = 0; k < keys.length; k++)
+				keys[k] = buffer.getLong();
+			element = buffer.getInt();
+			return true;
+		}
+
+		/**
+		 * Compare the current records of this and the given run by their
+		 * keys as unsigned numbers and by the position of the runs.
+		 *
+		 * @param other
+		 *            the run to compare with
+		 * @return the result of comparison
+		 */
+		int compareTo(Run other) {
+			for (int k = 0; k < keys.length; k++) {
+				long k1 = keys[k] ^ Long.MIN_VALUE;
+				long k2 = other.keys[k] ^ Long.MIN_VALUE;
+				if (k1 != k2)
+					return (k1 < k2) ? -1 : 1;
+			}
+			return index - other.index;
+		}
+
+		/**
+		 * Close the file of the run.
+		 *
+		 * @throws IOException
+		 *             if the file can not be closed
+		 */
+		void close() throws IOException {
+			channel.close();
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * IntComparator.java
+ *
+ * Created on 17. Oktober 2026, 09:12
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.util;
+
+/**
+ * A comparison function on primitive <code>int</code> values. It is the
+ * counterpart of <code>java.util.Comparator</code> for sorting arrays of
+ * indices without boxing them into <code>Integer</code> objects.
+ *
+ * @see de.tkuhn.util.IntSort
+ * @see java.util.Comparator
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface IntComparator {
+
+	/**
+	 * Compares its two arguments for order.
+	 *
+	 * @param i1
+	 *            the first value to be compared
+	 * @param i2
+	 *            the second value to be compared
+	 * @return a negative integer, zero, or a positive integer as the first
+	 *         argument is less than, equal to, or greater than the second.
+	 */
+	public int compare(int i1, int i2);
+
+}
@@ -0,0 +1,255 @@
+/*
+ * IntSort.java
+ *
+ * Created on 17. Oktober 2026, 09:20
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable sorting of primitive <code>int</code> arrays using an
+ * <code>IntComparator</code>. This is a merge sort like the one used by
+ * <code>java.util.Arrays</code> for objects, but it works directly on
+ * <code>int</code> values so sorting an array of row indices does not create
+ * any objects. The work array needed for merging may be passed in and reused
+ * between sorts.
+ *
+ * Large arrays can be sorted in parallel using a <code>ForkJoinPool</code>.
+ * The parallel sort splits the array exactly like the sequential one does, so
+ * both produce the same order even for comparators that are not consistent.
+ * Only the halves are sorted concurrently. Each merge runs in a single
+ * thread, so the final merge of the whole range is sequential and limits
+ * the speedup.
+ *
+ * @see de.tkuhn.util.IntComparator
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public final class IntSort {
+
+	/** Ranges smaller than this are sorted using insertion sort */
+	private static final int INSERTIONSORT_THRESHOLD = 7;
+
+	/** No instances */
+	private IntSort() {
+	}
+
+	/**
+	 * Sorts the given array into the order induced by the given comparator.
+	 * The sort is stable.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param c
+	 *            the comparator to determine the order
+	 */
+	public static void sort(int[] a, IntComparator c) {
+		sort(a, 0, a.length, c, null);
+	}
+
+	/**
+	 * Sorts the range <code>[from, to)</code> of the given array into the
+	 * order induced by the given comparator. The sort is stable.
+	 *
+	 * The work array is used for merging. Only its range
+	 * <code>[from, to)</code> is touched so several disjoint ranges of the
+	 * same array may share one work array. If it is <code>null</code> or too
+	 * short a new one is allocated.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param from
+	 *            index of the first element to be sorted (inclusive)
+	 * @param to
+	 *            index of the last element to be sorted (exclusive)
+	 * @param c
+	 *            the comparator to determine the order
+	 * @param work
+	 *            an array of at least length <code>to</code> or
+	 *            <code>null</code>
+	 */
+	public static void sort(int[] a, int from, int to, IntComparator c,
+			int[] work) {
+		if (from < 0 || to > a.length || from > to)
+			throw new ArrayIndexOutOfBoundsException("Illegal range [" + from
+					+ ", " + to + ") for array of length " + a.length);
+		if (to - from < 2)
+			return;
+		if (work == null || work.length < to)
+			work = new int[to];
+		System.arraycopy(a, from, work, from, to - from);
+		mergeSort(work, a, from, to, c);
+	}
+
+	/**
+	 * Sorts the range <code>[from, to)</code> of the given array into the
+	 * order induced by the given comparator using the threads of the given
+	 * pool. The result is the same as the one of <code>sort(..)</code>. The
+	 * comparator is called concurrently and must be thread safe. The last
+	 * merge of the range is done by a single thread.
+	 *
+	 * @param a
+	 *            the array to be sorted
+	 * @param from
+	 *            index of the first element to be sorted (inclusive)
+	 * @param to
+	 *            index of the last element to be sorted (exclusive)
+	 * @param c
+	 *            the comparator to determine the order
+	 * @param work
+	 *            an array of at least length <code>to</code> or
+	 *            <code>null</code>
+	 * @param pool
+	 *            the pool to run the sort in
+	 * @param granularity
+	 *            ranges of at most this length are sorted sequentially
+	 * @see #sort(int[], int, int, IntComparator, int[])
+	 */
+	public static void parallelSort(int[] a, int from, int to,
+			IntComparator c, int[] work, ForkJoinPool pool, int granularity) {
+		if (from < 0 || to > a.length || from > to)
+			throw new ArrayIndexOutOfBoundsException("Illegal range [" + from
+					+ ", " + to + ") for array of length " + a.length);
+		if (to - from < 2)
+			return;
+		if (work == null || work.length < to)
+			work = new int[to];
+		System.arraycopy(a, from, work, from, to - from);
+		pool.invoke(new SortTask(work, a, from, to, c, Math.max(
+				INSERTIONSORT_THRESHOLD, granularity)));
+	}
+
+	/**
+	 * Merges the two sorted ranges <code>[from, mid)</code> and
+	 * <code>[mid, to)</code> of <code>src</code> into the range
+	 * <code>[from, to)</code> of <code>dest</code>. On equal elements the one
+	 * of the first range is taken first, so merging keeps stability.
+	 *
+	 * @param src
+	 *            the array holding the sorted ranges
+	 * @param dest
+	 *            the array to merge into, must not be <code>src</code>
+	 * @param from
+	 *            start of the first range (inclusive)
+	 * @param mid
+	 *            end of the first and start of the second range
+	 * @param to
+	 *            end of the second range (exclusive)
+	 * @param c
+	 *            the comparator to determine the order
+	 */
+	public static void merge(int[] src, int[] dest, int from, int mid,
+			int to, IntComparator c) {
+		if (mid == from || mid == to || c.compare(src[mid - 1], src[mid]) <= 0) {
+			System.arraycopy(src, from, dest, from, to - from);
+			return;
+		}
+		for (int i = from, p = from, q = mid; i < to; i++) {
+			if (q >= to || (p < mid && c.compare(src[p], src[q]) <= 0))
+				dest[i] = src[p++];
+			else
+				dest[i] = src[q++];
+		}
+	}
+
+	/**
+	 * Sorts the range <code>[low, high)</code>. <code>src</code> and
+	 * <code>dest</code> must hold the same values in that range on entry. The
+	 * sorted values end up in <code>dest</code>, <code>src</code> is used as
+	 * scratch space.
+	 */
+	private static void mergeSort(int[] src, int[] dest, int low, int high,
+			IntComparator c) {
+		int length = high - low;
+
+		if (length < INSERTIONSORT_THRESHOLD) {
+			for (int i = low + 1; i < high; i++) {
+				int value = dest[i];
+				int j = i;
+				while (j > low && c.compare(dest[j - 1], value) > 0) {
+					dest[j] = dest[j - 1];
+					j--;
+				}
+				dest[j] = value;
+			}
+			return;
+		}
+
+		int mid = (low + high) >>> 1;
+		mergeSort(dest, src, low, mid, c);
+		mergeSort(dest, src, mid, high, c);
+		merge(src, dest, low, mid, high, c);
+	}
+
+	/**
+	 * Parallel version of <code>mergeSort(..)</code> that sorts both halves of
+	 * a range in separate tasks.
+	 */
+	private static class SortTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] src;
+
+		private final int[] dest;
+
+		private final int low;
+
+		private final int high;
+
+		private final IntComparator c;
+
+		private final int granularity;
+
+		SortTask(int[] src, int[] dest, int low, int high, IntComparator c,
+				int granularity) {
+			this.src = src;
+			this.dest = dest;
+			this.low = low;
+			this.high = high;
+			this.c = c;
+			this.granularity = granularity;
+		}
+
+		protected void compute() {
+			if (high - low <= granularity) {
+				mergeSort(src, dest, low, high, c);
+				return;
+			}
+			int mid = (low + high) >>> 1;
+			invokeAll(new SortTask(dest, src, low, mid, c, granularity),
+					new SortTask(dest, src, mid, high, c, granularity));
+			merge(src, dest, low, mid, high, c);
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * KeySource.java
+ *
+ * Created on 17. Oktober 2026, 20:10
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.util;
+
+/**
+ * Provides the unsigned <code>long</code> sort keys of numbered elements.
+ * Elements are ordered by their first key, elements with equal first keys
+ * by their second key and so on.
+ *
+ * @see de.tkuhn.util.ExternalSort
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public interface KeySource {
+
+	/**
+	 * Returns the given sort key of the given element.
+	 *
+	 * @param element
+	 *            the number of the element
+	 * @param key
+	 *            the number of the key, 0 for the first key
+	 * @return the unsigned sort key
+	 */
+	public long getKey(int element, int key);
+
+}
@@ -0,0 +1,289 @@
+/*
+ * RadixSort.java
+ *
+ * Created on 17. Oktober 2026, 11:02
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026
+ * Tilmann Kuhn           Gildestr. 34
+ * http://www.tkuhn.de    76149 Karlsruhe
+ * swingutils@tkuhn.de    Germany
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package de.tkuhn.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable LSD radix sort of <code>int</code> values by associated
+ * <code>long</code> keys. The keys are compared as unsigned numbers. Use the
+ * <code>toSortableKey</code> methods to convert signed <code>long</code> and
+ * <code>double</code> values into keys whose unsigned order is the natural
+ * order of the values.
+ *
+ * The sort needs at most eight linear passes over the data. Passes in which
+ * all keys share the same byte are skipped. Large arrays can be sorted in
+ * parallel using a <code>ForkJoinPool</code>. Chunks of the array are radix
+ * sorted concurrently and merged afterwards.
+ *
+ * @author Tilmann Kuhn
+ * @version 0.9.6
+ */
+public final class RadixSort {
+
+	/** Number of bits sorted per pass */
+	private static final int BITS = 8;
+
+	/** Number of buckets per pass */
+	private static final int BUCKETS = 1 << BITS;
+
+	/** Number of passes needed for 64 bit keys */
+	private static final int PASSES = 64 / BITS;
+
+	/** No instances */
+	private RadixSort() {
+	}
+
+	/**
+	 * Converts a signed <code>long</code> into a key whose unsigned order is
+	 * the signed order of the value.
+	 *
+	 * @param value
+	 *            the value to convert
+	 * @return the key for the value
+	 */
+	public static long toSortableKey(long value) {
+		return value ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Converts a <code>double</code> into a key whose unsigned order is the
+	 * order defined by <code>Double.compareTo(Double)</code>. That is
+	 * <code>-0.0</code> is less than <code>0.0</code> and <code>NaN</code> is
+	 * greater than all other values including positive infinity.
+	 *
+	 * @param value
+	 *            the value to convert
+	 * @return the key for the value
+	 */
+	public static long toSortableKey(double value) {
+		long bits = Double.doubleToLongBits(value);
+		return (bits < 0) ? ~bits : bits ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Sorts the range <code>[from, to)</code> of <code>values</code> by the
+	 * keys at the same positions of <code>keys</code>. The keys are moved
+	 * along with their values. The sort is stable.
+	 *
+	 * The work arrays must have at least length <code>to</code>. Only their
+	 * range <code>[from, to)</code> is touched. If one of them is
+	 * <code>null</code> or too short a new one is allocated.
+	 *
+	 * @param values
+	 *            the values to be sorted
+	 * @param keys
+	 *            the unsigned sort key of each value
+	 * @param from
+	 *            index of the first element to be sorted (inclusive)
+	 * @param to
+	 *            index of the last element to be sorted (exclusive)
+	 * @param valueWork
+	 *            work array for the values or <code>null</code>
+	 * @param keyWork
+	 *            work array for the keys or <code>null</code>
+	 */
+	public static void sort(int[] values, long[] keys, int from, int to,
+			int[] valueWork, long[] keyWork) {
+		if (from < 0 || to > values.length || to > keys.length || from > to)
+			throw new ArrayIndexOutOfBoundsException("Illegal range [" + from
+					+ ", " + to + ")");
+		int length = to - from;
+		if (length < 2)
+			return;
+		if (valueWork == null || valueWork.length < to)
+			valueWork = new int[to];
+		if (keyWork == null || keyWork.length < to)
+			keyWork = new long[to];
+
+		int[][] counts = new int[PASSES][BUCKETS];
+		for (int i = from; i < to; i++) {
+			long key = keys[i];
+			for (int pass = 0; pass < PASSES; pass++)
+				counts[pass][(int) (key >>> (pass * BITS)) & (BUCKETS - 1)]++;
+		}
+
+		int[] srcValues = values;
+		long[] srcKeys = keys;
+		int[] destValues = valueWork;
+		long[] destKeys = keyWork;
+		for (int pass = 0; pass < PASSES; pass++) {
+			int shift = pass * BITS;
+			int[] offset = counts[pass];
+			if (offset[(int) (srcKeys[from] >>> shift) & (BUCKETS - 1)] == length)
+				continue;
+
+			int sum = from;
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				int count = offset[bucket];
+				offset[bucket] = sum;
+				sum += count;
+			}
+			for (int i = from; i < to; i++) {
+				long key = srcKeys[i];
+				int pos = offset[(int) (key >>> shift) & (BUCKETS - 1)]++;
+				destValues[pos] = srcValues[i];
+				destKeys[pos] = key;
+			}
+
+			int[] swapValues = srcValues;
+			srcValues = destValues;
+			destValues = swapValues;
+			long[] swapKeys = srcKeys;
+			srcKeys = destKeys;
+			destKeys = swapKeys;
+		}
+
+		if (srcValues != values) {
+			System.arraycopy(srcValues, from, values, from, length);
+			System.arraycopy(srcKeys, from, keys, from, length);
+		}
+	}
+
+	/**
+	 * Sorts the range <code>[from, to)</code> of <code>values</code> by the
+	 * keys at the same positions of <code>keys</code> using the threads of
+	 * the given pool. The result is the same as the one of
+	 * <code>sort(..)</code>.
+	 *
+	 * @param values
+	 *            the values to be sorted
+	 * @param keys
+	 *            the unsigned sort key of each value
+	 * @param from
+	 *            index of the first element to be sorted (inclusive)
+	 * @param to
+	 *            index of the last element to be sorted (exclusive)
+	 * @param valueWork
+	 *            work array for the values or <code>null</code>
+	 * @param keyWork
+	 *            work array for the keys or <code>null</code>
+	 * @param pool
+	 *            the pool to run the sort in
+	 * @param granularity
+	 *            chunks of at most this length are sorted sequentially
+	 * @see #sort(int[], long[], int, int, int[], long[])
+	 */
+	public static void parallelSort(int[] values, long[] keys, int from,
+			int to, int[] valueWork, long[] keyWork, ForkJoinPool pool,
+			int granularity) {
+		if (from < 0 || to > values.length || to > keys.length || from > to)
+			throw new ArrayIndexOutOfBoundsException("Illegal range [" + from
+					+ ", " + to + ")");
+		if (to - from < 2)
+			return;
+		if (valueWork == null || valueWork.length < to)
+			valueWork = new int[to];
+		if (keyWork == null || keyWork.length < to)
+			keyWork = new long[to];
+		pool.invoke(new SortTask(values, keys, from, to, valueWork, keyWork,
+				Math.max(2, granularity)));
+	}
+
+	/**
+	 * Merges the sorted ranges <code>[from, mid)</code> and
+	 * <code>[mid, to)</code> of the source arrays into the destination arrays.
+	 * Keys of the first range are taken first on equality.
+	 */
+	private static void merge(int[] srcValues, long[] srcKeys,
+			int[] destValues, long[] destKeys, int from, int mid, int to) {
+		for (int i = from, p = from, q = mid; i < to; i++) {
+			if (q >= to
+					|| (p < mid && compareUnsigned(srcKeys[p], srcKeys[q]) <= 0)) {
+				destValues[i] = srcValues[p];
+				destKeys[i] = srcKeys[p++];
+			} else {
+				destValues[i] = srcValues[q];
+				destKeys[i] = srcKeys[q++];
+			}
+		}
+	}
+
+	/** Compares two longs as unsigned numbers */
+	private static int compareUnsigned(long k1, long k2) {
+		k1 ^= Long.MIN_VALUE;
+		k2 ^= Long.MIN_VALUE;
+		return (k1 < k2) ? -1 : ((k1 == k2) ? 0 : 1);
+	}
+
+	/**
+	 * Radix sorts both halves of a range in separate tasks and merges them
+	 * through the work arrays.
+	 */
+	private static class SortTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] values;
+
+		private final long[] keys;
+
+		private final int from;
+
+		private final int to;
+
+		private final int[] valueWork;
+
+		private final long[] keyWork;
+
+		private final int granularity;
+
+		SortTask(int[] values, long[] keys, int from, int to,
+				int[] valueWork, long[] keyWork, int granularity) {
+			this.values = values;
+			this.keys = keys;
+			this.from = from;
+			this.to = to;
+			this.valueWork = valueWork;
+			this.keyWork = keyWork;
+			this.granularity = granularity;
+		}
+
+		protected void compute() {
+			if (to - from <= granularity) {
+				sort(values, keys, from, to, valueWork, keyWork);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new SortTask(values, keys, from, mid, valueWork,
+					keyWork, granularity), new SortTask(values, keys, mid, to,
+					valueWork, keyWork, granularity));
+			if (compareUnsigned(keys[mid - 1], keys[mid]) <= 0)
+				return;
+			merge(values, keys, valueWork, keyWork, from, mid, to);
+			System.arraycopy(valueWork, from, values, from, to - from);
+			System.arraycopy(keyWork, from, keys, from, to - from);
+		}
+	}
+
+}